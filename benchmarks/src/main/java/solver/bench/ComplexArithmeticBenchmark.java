@@ -0,0 +1,79 @@
+package solver.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import solver.main.model.Complex;
+import solver.main.model.MutableComplex;
+import solver.main.model.Precision;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The four {@link Complex} operations elimination leans on, and the fused multiply-add of a
+ * {@link MutableComplex} that row operations use instead of a multiply and an add.  The divide
+ * scale follows the precision, as it does in the solver.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComplexArithmeticBenchmark {
+    @Param({"real", "complex"})
+    public String kind;
+
+    @Param({"DOUBLE", "BIG_DECIMAL"})
+    public Precision precision;
+
+    private Complex left;
+    private Complex right;
+    private final MutableComplex accumulator = new MutableComplex();
+
+    @Setup
+    public void setUp() {
+        Systems.useArithmeticOf(precision);
+        boolean complex = "complex".equals(kind);
+        left = new Complex(3.25, complex ? -1.5 : 0);
+        right = new Complex(-0.7071, complex ? 2.125 : 0);
+    }
+
+    @Benchmark
+    public Complex add() {
+        return left.add(right);
+    }
+
+    @Benchmark
+    public Complex multiply() {
+        return left.multiply(right);
+    }
+
+    @Benchmark
+    public Complex multiplyAdd() {
+        return left.add(left.multiply(right));
+    }
+
+    @Benchmark
+    public Complex fusedMultiplyAdd() {
+        return accumulator.set(left).fma(left, right).toComplex();
+    }
+
+    @Benchmark
+    public Complex divide() {
+        return left.divide(right);
+    }
+
+    @Benchmark
+    public Complex inverse() {
+        return right.inverse();
+    }
+}
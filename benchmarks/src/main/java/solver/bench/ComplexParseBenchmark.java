@@ -0,0 +1,58 @@
+package solver.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import solver.main.model.Complex;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** {@link Complex#parse(String)} over a batch of tokens like the ones in input files */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComplexParseBenchmark {
+    private static final int TOKENS = 1024;
+
+    @Param({"real", "complex"})
+    public String kind;
+
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        tokens = new String[TOKENS];
+
+        for (int i = 0; i < TOKENS; i++) {
+            double real = Math.round((random.nextDouble() * 200 - 100) * 10_000) / 10_000.0;
+            double imaginary = Math.round((random.nextDouble() * 200 - 100) * 10_000) / 10_000.0;
+            tokens[i] = "real".equals(kind)
+                    ? Double.toString(real)
+                    : String.format("%s%+fi", real, imaginary);
+        }
+    }
+
+    /** Time per token */
+    @Benchmark
+    @OperationsPerInvocation(TOKENS)
+    public void parse(Blackhole blackhole) {
+        for (String token : tokens) {
+            blackhole.consume(Complex.parse(token));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package solver.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import solver.main.control.Executor;
+import solver.main.logic.EquationSolver;
+import solver.main.logic.RowEliminator;
+import solver.main.model.Matrix;
+import solver.main.model.Precision;
+import solver.main.trace.SilentTrace;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A whole Gauss-Jordan solve, with tracing off.  Each invocation solves a fresh copy of the
+ * system; the copy is made outside the timed region.
+ * <p>
+ * {@code BIG_DECIMAL} at the larger sizes runs for a very long time, so only {@code DOUBLE} is on by
+ * default.  Ask for the others with {@code -p precision=DOUBLE_DOUBLE,BIG_DECIMAL -p size=10,100}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class EquationSolverBenchmark {
+    @Param({"10", "100", "500", "2000"})
+    public int size;
+
+    @Param({"1.0", "0.1"})
+    public double density;
+
+    @Param({"real", "complex"})
+    public String kind;
+
+    @Param({"DOUBLE"})
+    public Precision precision;
+
+    private Systems systems;
+    private Matrix matrix;
+
+    @Setup(Level.Trial)
+    public void createSystem() {
+        Systems.useArithmeticOf(precision);
+        systems = new Systems(size, density, "complex".equals(kind), 42);
+    }
+
+    @Setup(Level.Invocation)
+    public void copySystem() {
+        matrix = systems.toMatrix(precision);
+    }
+
+    @Benchmark
+    public Executor.SolutionState solve() {
+        return new EquationSolver(new RowEliminator(), new SilentTrace()).solve(matrix, systems.getSize());
+    }
+}
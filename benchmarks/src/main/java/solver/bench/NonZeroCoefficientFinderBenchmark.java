@@ -0,0 +1,56 @@
+package solver.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import solver.main.logic.NonZeroCoefficientFinder;
+import solver.main.model.Complex;
+import solver.main.model.Matrix;
+import solver.main.model.Precision;
+import solver.main.model.Swap;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The pivot search at its worst: the first column is zero except in the last row, so the finder
+ * has to look at every row before it finds one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NonZeroCoefficientFinderBenchmark {
+    @Param({"10", "100", "500", "2000"})
+    public int size;
+
+    @Param({"DOUBLE", "DOUBLE_DOUBLE", "BIG_DECIMAL"})
+    public Precision precision;
+
+    private final NonZeroCoefficientFinder finder = new NonZeroCoefficientFinder();
+    private Matrix matrix;
+
+    @Setup
+    public void setUp() {
+        Systems.useArithmeticOf(precision);
+        matrix = new Systems(size, 1.0, false, 42).toMatrix(precision);
+
+        for (int row = 0; row < size - 1; row++) {
+            matrix.setCoefficient(row, 0, Complex.ZERO);
+        }
+    }
+
+    @Benchmark
+    public Swap findNonZeroCoefficient() {
+        return finder.findNonZeroCoefficient(matrix, 0, 0);
+    }
+}
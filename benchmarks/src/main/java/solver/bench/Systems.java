@@ -0,0 +1,87 @@
+package solver.bench;
+
+import solver.main.model.Complex;
+import solver.main.model.DenseMatrix;
+import solver.main.model.DoubleDoubleMatrix;
+import solver.main.model.Matrix;
+import solver.main.model.Precision;
+import solver.main.model.RowListMatrix;
+
+import java.util.Random;
+
+/**
+ * Random, diagonally dominant systems for the benchmarks, so every one has a unique solution and
+ * needs no row swaps.  The coefficients are kept as plain arrays and copied into a fresh matrix of
+ * the requested precision whenever a benchmark needs one.
+ */
+final class Systems {
+    private final int size;
+    private final double[][] real;
+    private final double[][] imaginary;
+
+    /**
+     * @param size the number of equations and variables
+     * @param density the chance an off-diagonal coefficient is non-zero
+     * @param complex {@code false} for real-only coefficients
+     * @param seed for the random numbers, so runs are repeatable
+     */
+    Systems(int size, double density, boolean complex, long seed) {
+        Random random = new Random(seed);
+        this.size = size;
+        real = new double[size][size + 1];
+        imaginary = new double[size][size + 1];
+
+        for (int row = 0; row < size; row++) {
+            double rowSum = 0;
+
+            for (int column = 0; column < size; column++) {
+                if (column != row && random.nextDouble() < density) {
+                    real[row][column] = random.nextDouble() * 2 - 1;
+                    imaginary[row][column] = complex ? random.nextDouble() * 2 - 1 : 0;
+                    rowSum += Math.hypot(real[row][column], imaginary[row][column]);
+                }
+            }
+
+            real[row][row] = rowSum + 1;
+            real[row][size] = random.nextDouble() * 2 - 1;
+            imaginary[row][size] = complex ? random.nextDouble() * 2 - 1 : 0;
+        }
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    /** @return a new augmented matrix holding the system, stored the way the precision stores it */
+    Matrix toMatrix(Precision precision) {
+        Matrix matrix = createMatrix(precision);
+
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column <= size; column++) {
+                if (matrix instanceof DenseMatrix) {
+                    ((DenseMatrix) matrix).setCoefficient(row, column, real[row][column], imaginary[row][column]);
+                } else if (real[row][column] != 0 || imaginary[row][column] != 0) {
+                    matrix.setCoefficient(row, column, new Complex(real[row][column], imaginary[row][column]));
+                }
+            }
+        }
+
+        return matrix;
+    }
+
+    private Matrix createMatrix(Precision precision) {
+        switch (precision) {
+            case DOUBLE:
+                return new DenseMatrix(size, size + 1);
+            case DOUBLE_DOUBLE:
+                return new DoubleDoubleMatrix(size, size + 1);
+            default:
+                return new RowListMatrix(size, size + 1);
+        }
+    }
+
+    /** Use the division scale the solver would use for this precision */
+    static void useArithmeticOf(Precision precision) {
+        Complex.setArithmetic(precision.getDivideScale(), Complex.DEFAULT_ZERO_TOLERANCE);
+    }
+}
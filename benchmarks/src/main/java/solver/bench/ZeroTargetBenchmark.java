@@ -0,0 +1,63 @@
+package solver.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import solver.main.model.Complex;
+import solver.main.model.Matrix;
+import solver.main.model.Precision;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One row operation, {@link Matrix#zeroTarget}, across a whole row.  Each invocation adds a
+ * multiple of the source row and then takes it away again, so the target row stays put.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZeroTargetBenchmark {
+    @Param({"10", "100", "500", "2000"})
+    public int size;
+
+    @Param({"1.0", "0.1"})
+    public double density;
+
+    @Param({"real", "complex"})
+    public String kind;
+
+    @Param({"DOUBLE", "DOUBLE_DOUBLE", "BIG_DECIMAL"})
+    public Precision precision;
+
+    private Matrix matrix;
+    private Complex multiplier;
+    private Complex negatedMultiplier;
+
+    @Setup
+    public void setUp() {
+        Systems.useArithmeticOf(precision);
+        boolean complex = "complex".equals(kind);
+        matrix = new Systems(size, density, complex, 42).toMatrix(precision);
+        multiplier = new Complex(0.375, complex ? -0.25 : 0);
+        negatedMultiplier = multiplier.negate();
+    }
+
+    @Benchmark
+    public Matrix zeroTarget() {
+        matrix.zeroTarget(0, 1, multiplier);
+        matrix.zeroTarget(0, 1, negatedMultiplier);
+
+        return matrix;
+    }
+}
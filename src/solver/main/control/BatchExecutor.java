@@ -0,0 +1,279 @@
+package solver.main.control;
+
+import solver.main.model.LinearSystem;
+import solver.main.logic.ResidualVerifier;
+import solver.main.trace.Metrics;
+import solver.main.trace.SilentTrace;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Solves many independent systems in one JVM.  The source is a directory (every file in it), a glob
+ * on file names such as {@code systems/*.txt}, or one file holding several systems one after another.
+ * <p>
+ * Reading and writing files happen on their own threads, virtual threads where the runtime has them,
+ * while the solving itself runs on a fixed pool of {@link Settings#getBatchThreads()} threads.  Each
+ * system's solution goes to its own file in the output directory, named after the input file, or
+ * numbered from 1 after a multi-system file.  The row manipulations are not traced.
+ * <p>
+ * At most {@value #SYSTEMS_IN_FLIGHT_PER_THREAD} systems per solving thread are between being read and
+ * written at once, so a large batch neither starts a thread per file nor holds every system in memory
+ * while it waits for a solving thread.
+ */
+public class BatchExecutor {
+    private static final String SUMMARY_FILE_NAME = "batch-summary.txt";
+    private static final int SYSTEMS_IN_FLIGHT_PER_THREAD = 4;
+
+    private final Settings settings;
+    private final SolverFactory solvers;
+    private final Map<Executor.SolutionState, LongAdder> counts = new EnumMap<>(Executor.SolutionState.class);
+    private final LongAdder failures = new LongAdder();
+    private final DoubleAccumulator worstRelativeResidual = new DoubleAccumulator(Math::max, 0);
+    private final Semaphore inFlight;
+
+    public BatchExecutor(Settings settings) {
+        this.settings = settings;
+        solvers = new SolverFactory(settings);
+        inFlight = new Semaphore(SYSTEMS_IN_FLIGHT_PER_THREAD * settings.getBatchThreads());
+
+        for (Executor.SolutionState state : Executor.SolutionState.values()) {
+            counts.put(state, new LongAdder());
+        }
+    }
+
+    public void run() {
+        Path outputDirectory = Path.of(settings.getOutputFileName());
+        ExecutorService solving = Executors.newFixedThreadPool(settings.getBatchThreads());
+        ExecutorService io = newIoExecutor();
+        List<Future<?>> tasks = new ArrayList<>();
+        long start = System.nanoTime();
+
+        try {
+            Files.createDirectories(outputDirectory);
+            String source = settings.getBatchSource();
+
+            if (isGlob(source) || Files.isDirectory(Path.of(source))) {
+                for (Path input : listInputs(source)) {
+                    Path output = outputDirectory.resolve(input.getFileName());
+                    inFlight.acquireUninterruptibly();
+                    tasks.add(io.submit(() -> {
+                        try {
+                            solveFile(input, output, solving);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                }
+            } else {
+                readSystems(Path.of(source), outputDirectory, solving, io, tasks);
+            }
+
+            for (Future<?> task : tasks) {
+                await(task);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            io.shutdown();
+            solving.shutdown();
+        }
+
+        writeSummary(outputDirectory, System.nanoTime() - start);
+        solvers.writeMetrics();
+    }
+
+    // Virtual threads arrived in Java 21; before that, plain threads made as needed do the same job
+    static ExecutorService newIoExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private static boolean isGlob(String source) {
+        return source.indexOf('*') >= 0 || source.indexOf('?') >= 0
+                || source.indexOf('[') >= 0 || source.indexOf('{') >= 0;
+    }
+
+    /** @return the files to solve, by name; a glob is matched against the names in its directory */
+    private static List<Path> listInputs(String source) throws IOException {
+        Path directory;
+        String glob;
+
+        if (isGlob(source)) {
+            Path path = Path.of(source);
+            directory = path.getParent() == null ? Path.of(".") : path.getParent();
+            glob = path.getFileName().toString();
+        } else {
+            directory = Path.of(source);
+            glob = "*";
+        }
+
+        List<Path> inputs = new ArrayList<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+            for (Path path : stream) {
+                if (Files.isRegularFile(path)) {
+                    inputs.add(path);
+                }
+            }
+        }
+
+        inputs.sort(null);
+
+        return inputs;
+    }
+
+    // Read the systems in order on this thread, handing each one off to be solved as soon as it's read
+    private void readSystems(Path source, Path outputDirectory, ExecutorService solving, ExecutorService io,
+                             List<Future<?>> tasks) throws IOException {
+        String name = source.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+
+        try (Reader in = Files.newBufferedReader(source)) {
+            MatrixReader reader = new MatrixReader(in);
+            int index = 0;
+
+            while (reader.hasNext()) {
+                index++;
+                Optional<LinearSystem> system;
+
+                // Wait for room before reading, so the systems waiting to be solved don't pile up in memory
+                inFlight.acquireUninterruptibly();
+                Metrics.Timing parsing = solvers.getMetrics().time(Metrics.Phase.PARSE);
+                try {
+                    system = reader.read(settings);
+                } finally {
+                    parsing.stop();
+                }
+
+                // After a badly formed system there's no telling where the next one starts
+                if (system.isEmpty()) {
+                    System.err.printf("System %d of %s is badly formed, stopping there%n", index, source);
+                    failures.increment();
+                    inFlight.release();
+                    break;
+                }
+
+                Path output = outputDirectory.resolve(base + "-" + index + extension);
+                tasks.add(io.submit(() -> {
+                    try {
+                        solveAndWrite(system.get(), output, solving);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+        }
+    }
+
+    private void solveFile(Path input, Path output, ExecutorService solving) {
+        Optional<LinearSystem> system;
+
+        Metrics.Timing parsing = solvers.getMetrics().time(Metrics.Phase.PARSE);
+        try {
+            system = MatrixReader.read(input, settings);
+        } finally {
+            parsing.stop();
+        }
+
+        if (system.isEmpty()) {
+            System.err.println("Could not read " + input);
+            failures.increment();
+            return;
+        }
+
+        solveAndWrite(system.get(), output, solving);
+    }
+
+    private void solveAndWrite(LinearSystem system, Path output, ExecutorService solving) {
+        ResidualVerifier verifier = solvers.verifier(system);
+        Executor.SolutionState state = await(solving.submit(() -> solvers.solve(system, new SilentTrace())));
+
+        if (state == null) {
+            return;
+        }
+
+        ResidualVerifier.Residuals residuals = verifier == null ? null : verifier.verify(system.getMatrix(), state);
+
+        if (residuals != null) {
+            worstRelativeResidual.accumulate(residuals.getRelative());
+        }
+
+        Metrics.Timing writing = solvers.getMetrics().time(Metrics.Phase.OUTPUT);
+        try {
+            new SolutionWriter(settings.isAtomicOutput()).write(output, system.getMatrix(), state,
+                    system.getNumberOfVariables(), system.getRightHandSides(), residuals);
+            counts.get(state).increment();
+        } catch (IOException e) {
+            e.printStackTrace();
+            failures.increment();
+        } finally {
+            writing.stop();
+        }
+    }
+
+    /** @return the task's result, or {@code null} if it failed, which is counted */
+    private <T> T await(Future<T> task) {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        failures.increment();
+
+        return null;
+    }
+
+    private void writeSummary(Path outputDirectory, long nanoseconds) {
+        long solved = 0;
+
+        for (LongAdder count : counts.values()) {
+            solved += count.sum();
+        }
+
+        double seconds = nanoseconds / 1e9;
+        StringBuilder summary = new StringBuilder(String.format("Solved %d systems in %.3f s (%.1f per second)%n",
+                solved, seconds, solved / seconds));
+
+        for (Map.Entry<Executor.SolutionState, LongAdder> count : counts.entrySet()) {
+            summary.append(String.format("%s: %d%n", count.getKey(), count.getValue().sum()));
+        }
+
+        summary.append(String.format("Failed: %d%n", failures.sum()));
+
+        if (settings.isVerify()) {
+            summary.append(String.format("Worst relative residual: %.3e%n", worstRelativeResidual.get()));
+        }
+        System.out.print(summary);
+
+        try (Writer writer = Files.newBufferedWriter(outputDirectory.resolve(SUMMARY_FILE_NAME))) {
+            writer.write(summary.toString());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package solver.main.control;
+
+import solver.main.model.ComplexParser;
+import solver.main.model.LinearSystem;
+import solver.main.model.MappedMatrix;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * The binary matrix format, which is loaded by mapping it into memory rather than parsing it.  All
+ * numbers are little-endian.  A 32-byte header holds:
+ * <ul>
+ *     <li>the magic bytes {@code LESB} and the format version, 1</li>
+ *     <li>the number of variables, equations and right-hand sides, as {@code int}s</li>
+ *     <li>the element type, one byte: 0 when only real parts are stored, 1 when each real part is
+ *     followed by its imaginary part</li>
+ *     <li>the precision, one byte: 0 for {@code double}, the only one so far</li>
+ * </ul>
+ * and the rest is reserved.  Then come the elements of each row, constants included, row after row.
+ */
+public final class BinaryMatrixFile {
+    private static final int MAGIC = 'L' | 'E' << 8 | 'S' << 16 | 'B' << 24;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final byte REAL = 0;
+    private static final byte COMPLEX = 1;
+    private static final byte DOUBLE = 0;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private BinaryMatrixFile() {
+    }
+
+    /** @return whether the file starts like a binary matrix file */
+    public static boolean isBinary(Path path) {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] magic = in.readNBytes(Integer.BYTES);
+
+            return magic.length == Integer.BYTES
+                    && ByteBuffer.wrap(magic).order(ByteOrder.LITTLE_ENDIAN).getInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Map a binary matrix file.  Nothing is read until the solver touches it, and the solver's changes
+     * are never written back to the file.
+     * @return the system, or empty if the file can't be read or isn't a binary matrix file
+     */
+    public static Optional<LinearSystem> map(Path path) {
+        // A private mapping needs the file open for writing, though nothing is ever written back
+        OpenOption[] options = Files.isWritable(path)
+                ? new OpenOption[] { StandardOpenOption.READ, StandardOpenOption.WRITE }
+                : new OpenOption[] { StandardOpenOption.READ };
+
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is full or the file ends
+            }
+
+            header.flip();
+
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                System.err.println("Not a binary matrix file: " + path);
+                return Optional.empty();
+            }
+
+            int version = header.getInt();
+            int numberOfVariables = header.getInt();
+            int numberOfEquations = header.getInt();
+            int rightHandSides = header.getInt();
+            byte elementType = header.get();
+            byte precision = header.get();
+
+            if (version != VERSION || (elementType != REAL && elementType != COMPLEX) || precision != DOUBLE) {
+                System.err.printf("Unsupported binary matrix file (version %d, element type %d, precision %d): %s%n",
+                        version, elementType, precision, path);
+                return Optional.empty();
+            }
+
+            if (numberOfVariables < 1 || numberOfEquations < 1 || rightHandSides < 1) {
+                System.err.printf("Binary matrix file has %d variables, %d equations and %d right-hand sides: %s%n",
+                        numberOfVariables, numberOfEquations, rightHandSides, path);
+                return Optional.empty();
+            }
+
+            long lineLength = (long) numberOfVariables + rightHandSides;
+            long rowBytes = lineLength * (elementType == COMPLEX ? 2 : 1) * Double.BYTES;
+
+            if (rowBytes > Integer.MAX_VALUE) {
+                System.err.println("Rows are too long to map: " + path);
+                return Optional.empty();
+            }
+
+            if (channel.size() < HEADER_BYTES + numberOfEquations * rowBytes) {
+                System.err.println("Binary matrix file is shorter than its header says: " + path);
+                return Optional.empty();
+            }
+
+            MappedMatrix matrix = new MappedMatrix(channel, HEADER_BYTES, numberOfEquations, (int) lineLength,
+                    elementType == COMPLEX);
+
+            return Optional.of(new LinearSystem(matrix, numberOfVariables, rightHandSides));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Convert a system in the text format to a binary matrix file, streaming it through a small buffer,
+     * so a matrix larger than memory can be converted.  The elements are stored as complex numbers
+     * unless every imaginary part is zero.
+     * @return {@code false} if the text is badly formed or can't be read, or the file can't be written,
+     *         when the binary file is deleted again
+     */
+    public static boolean convert(Path text, Path binary) {
+        if (write(text, binary)) {
+            return true;
+        }
+
+        try {
+            Files.deleteIfExists(binary);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return false;
+    }
+
+    private static boolean write(Path text, Path binary) {
+        try (Reader in = Files.newBufferedReader(text);
+             FileChannel out = FileChannel.open(binary, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MatrixReader reader = new MatrixReader(in);
+            int[] header = reader.readHeader();
+
+            if (header == null) {
+                return false;
+            }
+
+            int lineLength = header[0] + header[2];
+            ElementWriter writer = new ElementWriter(out);
+
+            // Write every element as complex, and squeeze out the imaginary parts afterwards if they are all zero
+            if (!reader.readElements(header[1], lineLength, writer)) {
+                return false;
+            }
+
+            writer.flush();
+            long elements = (long) header[1] * lineLength;
+
+            if (!writer.complex) {
+                dropImaginaryParts(out, elements);
+            }
+
+            ByteBuffer headerBuffer = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(MAGIC).putInt(VERSION).putInt(header[0]).putInt(header[1]).putInt(header[2])
+                    .put(writer.complex ? COMPLEX : REAL).put(DOUBLE);
+            headerBuffer.clear();
+            writeFully(out, headerBuffer, 0);
+
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // The real parts move towards the start of the file, so each block is read before it's overwritten
+    private static void dropImaginaryParts(FileChannel channel, long elements) throws IOException {
+        ByteBuffer pairs = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer reals = ByteBuffer.allocate(BUFFER_SIZE / 2).order(ByteOrder.LITTLE_ENDIAN);
+        long readPosition = HEADER_BYTES;
+        long writePosition = HEADER_BYTES;
+        long end = HEADER_BYTES + elements * 2 * Double.BYTES;
+
+        while (readPosition < end) {
+            pairs.clear();
+            pairs.limit((int) Math.min(pairs.capacity(), end - readPosition));
+
+            while (pairs.hasRemaining() && channel.read(pairs, readPosition + pairs.position()) >= 0) {
+                // keep reading until the block is full
+            }
+
+            readPosition += pairs.position();
+            pairs.flip();
+            reals.clear();
+
+            while (pairs.remaining() >= 2 * Double.BYTES) {
+                reals.putDouble(pairs.getDouble());
+                pairs.getDouble();
+            }
+
+            reals.flip();
+            writePosition += writeFully(channel, reals, writePosition);
+        }
+
+        channel.truncate(writePosition);
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+
+        return written;
+    }
+
+    /** Appends each element to the file as a complex pair, noting whether any imaginary part isn't zero */
+    private static class ElementWriter implements MatrixReader.ElementVisitor {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long position = HEADER_BYTES;
+        private boolean complex = false;
+
+        private ElementWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void visit(int row, int column, ComplexParser element) throws IOException {
+            if (buffer.remaining() < 2 * Double.BYTES) {
+                flush();
+            }
+
+            double imaginary = element.imaginaryAsDouble();
+            complex |= imaginary != 0;
+            buffer.putDouble(element.realAsDouble()).putDouble(imaginary);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            position += writeFully(channel, buffer, position);
+            buffer.clear();
+        }
+    }
+}
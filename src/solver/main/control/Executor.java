@@ -1,36 +1,85 @@
 package solver.main.control;
 
-import solver.main.logic.EquationSolver;
+import solver.main.logic.Preconditioner;
+import solver.main.logic.ResidualVerifier;
 import solver.main.model.Complex;
+import solver.main.model.LinearSystem;
 import solver.main.model.Matrix;
-import solver.main.model.MatrixRow;
+import solver.main.model.Precision;
+import solver.main.trace.AsyncTrace;
+import solver.main.trace.Metrics;
+import solver.main.trace.PrintTrace;
+import solver.main.trace.SilentTrace;
+import solver.main.trace.SummaryTrace;
+import solver.main.trace.Trace;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
-import java.util.List;
 import java.util.Optional;
 
 public class Executor {
-    public enum SolutionState { SOLUTION, NO_SOLUTION, INFINITE_SOLUTIONS }
+    public enum SolutionState { SOLUTION, NO_SOLUTION, INFINITE_SOLUTIONS, NOT_CONVERGED }
 
-    private final EquationSolver equationSolver = new EquationSolver();
-    private String inputFileName = null;
-    private String outputFileName = null;
-    private int numberOfVariables = 0;
+    private final Settings settings = new Settings();
 
     public void run(String[] args) {
-        // sets numberOfVariables as a side-effect
         parseArgs(args);
-        Optional<Matrix> matrixOptional = getMatrixFromInputFile();
 
-        if (matrixOptional.isPresent()) {
+        if (settings.getServeAddress() != null) {
+            new SolverServer(settings).run();
+            return;
+        }
+
+        if (settings.getBatchSource() != null) {
+            new BatchExecutor(settings).run();
+            return;
+        }
+
+        if (settings.isConvertToBinary()) {
+            if (BinaryMatrixFile.convert(Path.of(settings.getInputFileName()), Path.of(settings.getOutputFileName()))) {
+                System.out.printf("Converted %s to %s%n", settings.getInputFileName(), settings.getOutputFileName());
+            }
+
+            return;
+        }
+
+        SolverFactory solvers = new SolverFactory(settings);
+        Metrics metrics = solvers.getMetrics();
+        Optional<LinearSystem> systemOptional;
+
+        Metrics.Timing parsing = metrics.time(Metrics.Phase.PARSE);
+        try {
+            systemOptional = MatrixReader.read(Path.of(settings.getInputFileName()), settings);
+        } finally {
+            parsing.stop();
+        }
+
+        if (systemOptional.isPresent()) {
             System.out.println("Start solving the equation.");
-            System.out.println("Row manipulation:");
-            Matrix matrix = matrixOptional.get();
-            SolutionState state = equationSolver.solve(matrix, numberOfVariables);
-            writeSolutionToOutputFile(matrix, state, numberOfVariables);
+            LinearSystem system = systemOptional.get();
+            ResidualVerifier verifier = solvers.verifier(system);
+            SolutionState state;
+
+            try (Trace trace = createTrace()) {
+                trace.message("Row manipulation:");
+                state = solvers.solve(system, trace);
+            }
+
+            ResidualVerifier.Residuals residuals = verifier == null ? null : verifier.verify(system.getMatrix(), state);
+
+            Metrics.Timing writing = metrics.time(Metrics.Phase.OUTPUT);
+            try {
+                writeSolutionToOutputFile(system.getMatrix(), state, system.getNumberOfVariables(),
+                        system.getRightHandSides(), residuals);
+            } finally {
+                writing.stop();
+            }
+
+            solvers.writeMetrics();
         }
     }
 
@@ -40,103 +89,389 @@ public class Executor {
                 case "-in":
                     if (i < args.length - 1) {
                         i++;
-                        inputFileName = args[i];
+                        settings.setInputFileName(args[i]);
                     }
                     break;
                 case "-out":
                     if (i < args.length - 1) {
                         i++;
-                        outputFileName = args[i];
+                        settings.setOutputFileName(args[i]);
+                    }
+                    break;
+                case "-storage":
+                    if (i < args.length - 1) {
+                        i++;
+                        parseStorage(args[i]);
+                    }
+                    break;
+                case "-solver":
+                    if (i < args.length - 1) {
+                        i++;
+                        parseSolverType(args[i]);
+                    }
+                    break;
+                case "-block":
+                    if (i < args.length - 1) {
+                        i++;
+                        settings.setBlockSize(parsePositiveInt(args[i], Settings.DEFAULT_BLOCK_SIZE));
+                    }
+                    break;
+                case "-threads":
+                    if (i < args.length - 1) {
+                        i++;
+                        settings.setParallelism(parsePositiveInt(args[i], 1));
+                    }
+                    break;
+                case "-parallel-threshold":
+                    if (i < args.length - 1) {
+                        i++;
+                        settings.setParallelThreshold(
+                                parsePositiveInt(args[i], Settings.DEFAULT_PARALLEL_THRESHOLD));
+                    }
+                    break;
+                case "-trace":
+                    if (i < args.length - 1) {
+                        i++;
+                        parseTraceLevel(args[i]);
+                    }
+                    break;
+                case "-trace-file":
+                    if (i < args.length - 1) {
+                        i++;
+                        settings.setTraceFileName(args[i]);
+                    }
+                    break;
+                case "-precision":
+                    if (i < args.length - 1) {
+                        i++;
+                        parsePrecision(args[i]);
+                    }
+                    break;
+                case "-scale":
+                    if (i < args.length - 1) {
+                        i++;
+                        settings.setDivideScale(parsePositiveInt(args[i], settings.getPrecision().getDivideScale()));
                     }
                     break;
+                case "-tolerance":
+                    if (i < args.length - 1) {
+                        i++;
+                        parseTolerance(args[i]);
+                    }
+                    break;
+                case "-residual-tolerance":
+                    if (i < args.length - 1) {
+                        i++;
+                        settings.setResidualTolerance(
+                                parsePositiveDouble(args[i], Settings.DEFAULT_RESIDUAL_TOLERANCE));
+                    }
+                    break;
+                case "-max-iterations":
+                    if (i < args.length - 1) {
+                        i++;
+                        settings.setMaxIterations(parsePositiveInt(args[i], Settings.DEFAULT_MAX_ITERATIONS));
+                    }
+                    break;
+                case "-restart":
+                    if (i < args.length - 1) {
+                        i++;
+                        settings.setRestart(parsePositiveInt(args[i], Settings.DEFAULT_RESTART));
+                    }
+                    break;
+                case "-preconditioner":
+                    if (i < args.length - 1) {
+                        i++;
+                        parsePreconditioner(args[i]);
+                    }
+                    break;
+                case "-batch":
+                    if (i < args.length - 1) {
+                        i++;
+                        settings.setBatchSource(args[i]);
+                    }
+                    break;
+                case "-batch-threads":
+                    if (i < args.length - 1) {
+                        i++;
+                        settings.setBatchThreads(parsePositiveInt(args[i], Settings.DEFAULT_BATCH_THREADS));
+                    }
+                    break;
+                case "-serve":
+                    if (i < args.length - 1) {
+                        i++;
+                        settings.setServeAddress(args[i]);
+                    }
+                    break;
+                case "-convert":
+                    settings.setConvertToBinary(true);
+                    break;
+                case "-metrics":
+                    if (i < args.length - 1) {
+                        i++;
+                        settings.setMetricsFileName(args[i]);
+                    }
+                    break;
+                case "-verify":
+                    settings.setVerify(true);
+                    break;
+                case "-atomic":
+                    settings.setAtomicOutput(true);
+                    break;
                 default:
                     System.err.println("Bad command line argument: " + args[i]);
             }
         }
 
-        if (inputFileName == null || outputFileName == null) {
+        // A server takes its systems from the socket and answers on it, so needs no file names
+        if (settings.getServeAddress() == null && settings.getBatchSource() != null
+                && settings.getOutputFileName() == null) {
+            System.err.println("output directory not set, aborting");
+            System.exit(1);
+        }
+
+        if (settings.getServeAddress() == null && settings.getBatchSource() == null
+                && (settings.getInputFileName() == null || settings.getOutputFileName() == null)) {
             System.err.println("input or output file name not set, aborting");
             System.exit(1);
         }
+
+        warnOfDoubleArithmetic();
+        Complex.setArithmetic(settings.getDivideScale(), settings.getZeroTolerance());
     }
 
-    private Optional<Matrix> getMatrixFromInputFile() {
-        Path path = Path.of(inputFileName);
-        List<String> lines;
+    /** Say so when the storage or solver chosen computes in {@code double}, whatever {@code -precision} asked */
+    private void warnOfDoubleArithmetic() {
+        if (!settings.isPrecisionChosen() || settings.getPrecision() == Precision.DOUBLE) {
+            return;
+        }
 
-        try {
-            lines = Files.readAllLines(path);
-        } catch (IOException e) {
-            e.printStackTrace();
-            return Optional.empty();
+        if (settings.getStorage() == Settings.Storage.SPARSE) {
+            System.err.println("Sparse storage keeps and solves in double, whatever -precision says");
+            return;
         }
 
-        // First line parsing
-        String[] firstLine = lines.get(0).split("\\s+");
+        String solver;
 
-        if (firstLine.length < 2) {
-            System.err.println("First line of input file has too few integers");
-            return Optional.empty();
+        switch (settings.getSolverType()) {
+            case LU:
+                solver = "lu";
+                break;
+            case STRUCTURED:
+                solver = "auto";
+                break;
+            case CONJUGATE_GRADIENT:
+                solver = "cg";
+                break;
+            case BICGSTAB:
+                solver = "bicgstab";
+                break;
+            case GMRES:
+                solver = "gmres";
+                break;
+            default:
+                return;
         }
 
-        numberOfVariables = Integer.parseInt(firstLine[0]);
-        int numberOfEquations = Integer.parseInt(firstLine[1]);
-        Matrix matrix = new Matrix();
+        System.err.printf("-solver %s computes in double; -precision only applies when it falls back to gauss, "
+                + "and to several right-hand sides%n", solver);
+    }
 
-        // Build matrix
-        for (int i = 1; i < numberOfEquations + 1; i++) {
-            String line = lines.get(i);
-            String[] parts = line.split("\\s+");
-            MatrixRow matrixRow = new MatrixRow();
+    private void parseStorage(String arg) {
+        switch (arg) {
+            case "list":
+                settings.setStorage(Settings.Storage.LIST);
+                break;
+            case "dense":
+                settings.setStorage(Settings.Storage.DENSE);
+                break;
+            case "sparse":
+                settings.setStorage(Settings.Storage.SPARSE);
+                break;
+            default:
+                System.err.println("Unknown storage, using list: " + arg);
+        }
+    }
 
-            for (String part : parts) {
-                matrixRow.add(Complex.parse(part));
-            }
+    private void parseSolverType(String arg) {
+        switch (arg) {
+            case "gauss":
+                settings.setSolverType(Settings.SolverType.GAUSS_JORDAN);
+                break;
+            case "lu":
+                settings.setSolverType(Settings.SolverType.LU);
+                break;
+            case "refine":
+                settings.setSolverType(Settings.SolverType.REFINEMENT);
+                break;
+            case "auto":
+                settings.setSolverType(Settings.SolverType.STRUCTURED);
+                break;
+            case "cg":
+                settings.setSolverType(Settings.SolverType.CONJUGATE_GRADIENT);
+                break;
+            case "bicgstab":
+                settings.setSolverType(Settings.SolverType.BICGSTAB);
+                break;
+            case "gmres":
+                settings.setSolverType(Settings.SolverType.GMRES);
+                break;
+            default:
+                System.err.println("Unknown solver, using gauss: " + arg);
+        }
+    }
 
-            matrix.add(matrixRow);
+    private void parsePrecision(String arg) {
+        switch (arg) {
+            case "double":
+                settings.setPrecision(Precision.DOUBLE);
+                break;
+            case "double-double":
+                settings.setPrecision(Precision.DOUBLE_DOUBLE);
+                break;
+            case "bigdecimal":
+                settings.setPrecision(Precision.BIG_DECIMAL);
+                break;
+            default:
+                System.err.println("Unknown precision, using the storage's: " + arg);
         }
+    }
 
-        return Optional.of(matrix);
+    private void parsePreconditioner(String arg) {
+        switch (arg) {
+            case "none":
+                settings.setPreconditioner(Preconditioner.Type.NONE);
+                break;
+            case "jacobi":
+                settings.setPreconditioner(Preconditioner.Type.JACOBI);
+                break;
+            case "ilu0":
+                settings.setPreconditioner(Preconditioner.Type.ILU0);
+                break;
+            default:
+                System.err.println("Unknown preconditioner, using none: " + arg);
+        }
     }
 
-    private void writeSolutionToOutputFile(Matrix matrix, SolutionState state, int numberOfVariables) {
-        Path path = Path.of(outputFileName);
+    private void parseTolerance(String arg) {
+        try {
+            BigDecimal tolerance = new BigDecimal(arg);
+
+            if (tolerance.signum() >= 0) {
+                settings.setZeroTolerance(tolerance);
+                return;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the message below
+        }
+
+        System.err.printf("Expected a non-negative number, using %s: %s%n", settings.getZeroTolerance(), arg);
+    }
+
+    private void parseTraceLevel(String arg) {
+        switch (arg) {
+            case "silent":
+                settings.setTraceLevel(Trace.Level.SILENT);
+                break;
+            case "summary":
+                settings.setTraceLevel(Trace.Level.SUMMARY);
+                break;
+            case "full":
+                settings.setTraceLevel(Trace.Level.FULL);
+                break;
+            default:
+                System.err.println("Unknown trace level, using full: " + arg);
+        }
+    }
 
+    private int parsePositiveInt(String arg, int defaultValue) {
         try {
-            Files.deleteIfExists(path);
-        } catch (IOException e) {
-            e.printStackTrace();
+            int value = Integer.parseInt(arg);
+
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the message below
         }
 
+        System.err.printf("Expected a positive integer, using %d: %s%n", defaultValue, arg);
+
+        return defaultValue;
+    }
+
+    private double parsePositiveDouble(String arg, double defaultValue) {
+        try {
+            double value = Double.parseDouble(arg);
+
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the message below
+        }
+
+        System.err.printf("Expected a positive number, using %s: %s%n", defaultValue, arg);
+
+        return defaultValue;
+    }
+
+    // The full trace goes to the console, or is written to a file on its own thread
+    private Trace createTrace() {
+        switch (settings.getTraceLevel()) {
+            case SILENT:
+                return new SilentTrace();
+            case SUMMARY:
+                return new SummaryTrace(System.out);
+            default:
+                if (settings.getTraceFileName() == null) {
+                    return new PrintTrace(System.out);
+                }
+
+                try {
+                    PrintStream out = new PrintStream(new BufferedOutputStream(
+                            Files.newOutputStream(Path.of(settings.getTraceFileName()))));
+
+                    return new AsyncTrace(new PrintTrace(out, true));
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    return new PrintTrace(System.out);
+                }
+        }
+    }
+
+    private void writeSolutionToOutputFile(Matrix matrix, SolutionState state, int numberOfVariables,
+                                           int rightHandSides, ResidualVerifier.Residuals residuals) {
         if (state == SolutionState.NO_SOLUTION) {
-            String line = "No solutions";
-            System.out.println(line);
-            writeLineToFile(path, line);
+            System.out.println(SolutionWriter.NO_SOLUTIONS);
         } else if (state == SolutionState.INFINITE_SOLUTIONS) {
-            String line = "Infinitely many solutions";
-            System.out.println(line);
-            writeLineToFile(path, line);
+            System.out.println(SolutionWriter.INFINITE_SOLUTIONS);
+        } else if (state == SolutionState.NOT_CONVERGED) {
+            System.out.println(SolutionWriter.NOT_CONVERGED);
         } else {
-            int constantColumn = matrix.getLineLength() - 1;
-            System.out.println("Solution:");
+            int firstConstantColumn = matrix.getLineLength() - rightHandSides;
+            StringBuilder solution = new StringBuilder("Solution:").append(System.lineSeparator());
 
             for (int row = 0; row < numberOfVariables; row++) {
-                Complex constant = matrix.getCoefficient(row, constantColumn);
-                System.out.printf("%s ", constant);
-                String line = String.format("%s%n", constant);
-                writeLineToFile(path, line);
+                for (int column = firstConstantColumn; column < matrix.getLineLength(); column++) {
+                    solution.append(matrix.getCoefficient(row, column)).append(' ');
+                }
             }
+
+            System.out.print(solution);
         }
 
-        System.out.printf("%nSaved to file %s%n", outputFileName);
-    }
+        if (residuals != null) {
+            System.out.printf("%n%s%.3e%n%s%.3e", SolutionWriter.MAX_RESIDUAL, residuals.getMax(),
+                    SolutionWriter.RELATIVE_RESIDUAL, residuals.getRelative());
+        }
 
-    private void writeLineToFile(Path path, String line) {
         try {
-            Files.writeString(path, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            new SolutionWriter(settings.isAtomicOutput()).write(Path.of(settings.getOutputFileName()), matrix, state,
+                    numberOfVariables, rightHandSides, residuals);
         } catch (IOException e) {
             e.printStackTrace();
         }
-    }
 
+        System.out.printf("%nSaved to file %s%n", settings.getOutputFileName());
+    }
 }
@@ -0,0 +1,281 @@
+package solver.main.control;
+
+import solver.main.model.Complex;
+import solver.main.model.ComplexParser;
+import solver.main.model.DenseMatrix;
+import solver.main.model.DoubleDoubleMatrix;
+import solver.main.model.LinearSystem;
+import solver.main.model.Matrix;
+import solver.main.model.RowListMatrix;
+import solver.main.model.SparseMatrix;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Reads a system in the input file format in a single streaming pass.  Characters are pulled
+ * through one fixed buffer, split into tokens by hand and scanned by a {@link ComplexParser};
+ * each number goes straight into the matrix storage, with no lines or {@code String[]} in between.
+ */
+public class MatrixReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final ComplexParser parser = new ComplexParser();
+    private int position = 0;
+    private int limit = 0;
+    private char[] token = new char[64];
+    private int tokenLength = 0;
+
+    public MatrixReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Read a system from a file, either in the text format or, mapped rather than read, a {@link BinaryMatrixFile}.
+     * @return the system, or empty if the file can't be read or is badly formed
+     */
+    public static Optional<LinearSystem> read(Path path, Settings settings) {
+        if (BinaryMatrixFile.isBinary(path)) {
+            return BinaryMatrixFile.map(path);
+        }
+
+        try (Reader reader = Files.newBufferedReader(path)) {
+            return new MatrixReader(reader).read(settings);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Skip any whitespace up to the next system, so several systems can be read one after another.
+     * @return {@code false} at the end of the input
+     */
+    public boolean hasNext() throws IOException {
+        while (position < limit || fill()) {
+            if (!Character.isWhitespace(buffer[position])) {
+                return true;
+            }
+
+            position++;
+        }
+
+        return false;
+    }
+
+    /**
+     * Read one system: a first line of two or three integers (variables, equations and optionally
+     * right-hand sides), followed by the coefficients and constants of each equation.
+     * @return the system, or empty if the input is badly formed
+     */
+    public Optional<LinearSystem> read(Settings settings) throws IOException {
+        int[] header = readHeader();
+
+        if (header == null) {
+            return Optional.empty();
+        }
+
+        int numberOfVariables = header[0];
+        int numberOfEquations = header[1];
+        int rightHandSides = header[2];
+        int lineLength = numberOfVariables + rightHandSides;
+        Matrix matrix = createMatrix(settings, numberOfEquations, lineLength);
+        DenseMatrix dense = matrix instanceof DenseMatrix ? (DenseMatrix) matrix : null;
+        SparseMatrix sparse = matrix instanceof SparseMatrix ? (SparseMatrix) matrix : null;
+
+        // Build matrix
+        boolean complete = readElements(numberOfEquations, lineLength, (row, column, element) -> {
+            if (dense != null) {
+                dense.setCoefficient(row, column, element.realAsDouble(), element.imaginaryAsDouble());
+            } else if (sparse != null) {
+                sparse.setCoefficient(row, column, element.realAsDouble(), element.imaginaryAsDouble());
+            } else {
+                matrix.setCoefficient(row, column, Complex.of(element));
+            }
+        });
+
+        return complete
+                ? Optional.of(new LinearSystem(matrix, numberOfVariables, rightHandSides))
+                : Optional.empty();
+    }
+
+    /**
+     * Read the first line of a system.
+     * @return the number of variables, equations and right-hand sides, or {@code null} if the line is badly formed
+     */
+    int[] readHeader() throws IOException {
+        int[] header = new int[3];
+        int count = 0;
+        hasNext();
+
+        // First line parsing
+        while (count < header.length && nextTokenOnLine()) {
+            try {
+                header[count++] = Integer.parseInt(new String(token, 0, tokenLength));
+            } catch (NumberFormatException e) {
+                System.err.println("First line of input file must hold integers");
+                return null;
+            }
+        }
+
+        if (count < 2) {
+            System.err.println("First line of input file has too few integers");
+            return null;
+        }
+
+        if (count < 3) {
+            header[2] = 1;
+        }
+
+        if (header[0] < 1 || header[1] < 1) {
+            System.err.println("First line of input file must have positive numbers of variables and equations");
+            return null;
+        }
+
+        if (header[2] < 1) {
+            System.err.println("First line of input file must have a positive number of right-hand sides");
+            return null;
+        }
+
+        if ((long) header[0] + header[2] > Integer.MAX_VALUE) {
+            System.err.println("First line of input file has too many variables and right-hand sides");
+            return null;
+        }
+
+        return header;
+    }
+
+    /**
+     * Read the elements that follow the first line, handing each one to the visitor in row-major order.
+     * Each equation is a line of its own, and blank lines between them are skipped.
+     * @return {@code false} if the input ends early, a line holds too few or too many numbers, or holds
+     *         something that isn't a number
+     */
+    boolean readElements(int numberOfEquations, int lineLength, ElementVisitor visitor) throws IOException {
+        for (int row = 0; row < numberOfEquations; row++) {
+            for (int column = 0; column < lineLength; column++) {
+                if (column == 0 && !nextToken()) {
+                    System.err.printf("Input ended early, at equation %d%n", row + 1);
+                    return false;
+                }
+
+                if (column > 0 && !nextTokenOnLine()) {
+                    System.err.printf("Cannot add row, line length is wrong, at equation %d%n", row + 1);
+                    return false;
+                }
+
+                if (!parser.scan(token, 0, tokenLength)) {
+                    System.err.printf("Can't match complex number (%s) in equation %d%n",
+                            new String(token, 0, tokenLength), row + 1);
+                    return false;
+                }
+
+                visitor.visit(row, column, parser);
+            }
+
+            if (nextTokenOnLine()) {
+                System.err.printf("Cannot add row, line length is wrong, at equation %d%n", row + 1);
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private Matrix createMatrix(Settings settings, int size, int lineLength) {
+        if (settings.getStorage() == Settings.Storage.SPARSE) {
+            return new SparseMatrix(size, lineLength);
+        }
+
+        switch (settings.getPrecision()) {
+            case DOUBLE:
+                return new DenseMatrix(size, lineLength);
+            case DOUBLE_DOUBLE:
+                return new DoubleDoubleMatrix(size, lineLength);
+            default:
+                return new RowListMatrix(size, lineLength);
+        }
+    }
+
+    /** Read the next token, skipping any whitespace, line breaks included */
+    private boolean nextToken() throws IOException {
+        while (true) {
+            if (position == limit && !fill()) {
+                return false;
+            }
+
+            if (!Character.isWhitespace(buffer[position])) {
+                return readToken();
+            }
+
+            position++;
+        }
+    }
+
+    /** Read the next token on the current line; consumes the line break and returns false at its end */
+    private boolean nextTokenOnLine() throws IOException {
+        while (true) {
+            if (position == limit && !fill()) {
+                return false;
+            }
+
+            char c = buffer[position];
+
+            if (c == '\n') {
+                position++;
+                return false;
+            }
+
+            if (!Character.isWhitespace(c)) {
+                return readToken();
+            }
+
+            position++;
+        }
+    }
+
+    private boolean readToken() throws IOException {
+        tokenLength = 0;
+
+        while (position < limit || fill()) {
+            char c = buffer[position];
+
+            if (Character.isWhitespace(c)) {
+                break;
+            }
+
+            if (tokenLength == token.length) {
+                token = Arrays.copyOf(token, token.length * 2);
+            }
+
+            token[tokenLength++] = c;
+            position++;
+        }
+
+        return true;
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+
+        if (read <= 0) {
+            return false;
+        }
+
+        position = 0;
+        limit = read;
+
+        return true;
+    }
+
+    /** Receives each element as it is scanned */
+    interface ElementVisitor {
+        void visit(int row, int column, ComplexParser element) throws IOException;
+    }
+}
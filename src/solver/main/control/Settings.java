@@ -0,0 +1,260 @@
+package solver.main.control;
+
+import solver.main.logic.Preconditioner;
+import solver.main.model.Complex;
+import solver.main.model.Precision;
+import solver.main.trace.Trace;
+
+import java.math.BigDecimal;
+
+/**
+ * Options chosen on the command line.
+ */
+public class Settings {
+
+    /** How the matrix is held in memory: one object per cell, flat primitive arrays, or only the non-zeros */
+    public enum Storage { LIST, DENSE, SPARSE }
+
+    /** Which algorithm solves the system */
+    public enum SolverType { GAUSS_JORDAN, LU, REFINEMENT, STRUCTURED, CONJUGATE_GRADIENT, BICGSTAB, GMRES }
+
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 64;
+    public static final double DEFAULT_RESIDUAL_TOLERANCE = 1e-10;
+    public static final int DEFAULT_MAX_ITERATIONS = 1000;
+    public static final int DEFAULT_RESTART = 30;
+    public static final int DEFAULT_BATCH_THREADS = Runtime.getRuntime().availableProcessors();
+
+    private String inputFileName = null;
+    private String outputFileName = null;
+    private Storage storage = Storage.LIST;
+    private SolverType solverType = SolverType.GAUSS_JORDAN;
+    private int blockSize = DEFAULT_BLOCK_SIZE;
+    private int parallelism = 1;
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    private boolean atomicOutput = false;
+    private Trace.Level traceLevel = Trace.Level.FULL;
+    private String traceFileName = null;
+    private Precision precision = null;
+    private int divideScale = -1;
+    private BigDecimal zeroTolerance = Complex.DEFAULT_ZERO_TOLERANCE;
+    private double residualTolerance = DEFAULT_RESIDUAL_TOLERANCE;
+    private int maxIterations = DEFAULT_MAX_ITERATIONS;
+    private int restart = DEFAULT_RESTART;
+    private Preconditioner.Type preconditioner = Preconditioner.Type.NONE;
+    private String batchSource = null;
+    private int batchThreads = DEFAULT_BATCH_THREADS;
+    private String serveAddress = null;
+    private boolean convertToBinary = false;
+    private String metricsFileName = null;
+    private boolean verify = false;
+
+    public String getInputFileName() {
+        return inputFileName;
+    }
+
+    public void setInputFileName(String inputFileName) {
+        this.inputFileName = inputFileName;
+    }
+
+    public String getOutputFileName() {
+        return outputFileName;
+    }
+
+    public void setOutputFileName(String outputFileName) {
+        this.outputFileName = outputFileName;
+    }
+
+    public Storage getStorage() {
+        return storage;
+    }
+
+    public void setStorage(Storage storage) {
+        this.storage = storage;
+    }
+
+    public SolverType getSolverType() {
+        return solverType;
+    }
+
+    public void setSolverType(SolverType solverType) {
+        this.solverType = solverType;
+    }
+
+    /** @return the tile edge, in elements, used by the blocked LU factorization */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public void setBlockSize(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    /** @return the number of threads used for row elimination; 1 is sequential */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /** @return the fewest rows to update, per pivot, before elimination is split across threads */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /** @return the file to write the JSON metrics to, or {@code null} for none */
+    public String getMetricsFileName() {
+        return metricsFileName;
+    }
+
+    public void setMetricsFileName(String metricsFileName) {
+        this.metricsFileName = metricsFileName;
+    }
+
+    public boolean isVerify() {
+        return verify;
+    }
+
+    public void setVerify(boolean verify) {
+        this.verify = verify;
+    }
+
+    /** @return {@code true} to write the output to a temporary file and rename it into place */
+    public boolean isAtomicOutput() {
+        return atomicOutput;
+    }
+
+    public void setAtomicOutput(boolean atomicOutput) {
+        this.atomicOutput = atomicOutput;
+    }
+
+    public Trace.Level getTraceLevel() {
+        return traceLevel;
+    }
+
+    public void setTraceLevel(Trace.Level traceLevel) {
+        this.traceLevel = traceLevel;
+    }
+
+    /** @return the file the full trace is written to, or {@code null} for the console */
+    public String getTraceFileName() {
+        return traceFileName;
+    }
+
+    public void setTraceFileName(String traceFileName) {
+        this.traceFileName = traceFileName;
+    }
+
+    /** @return the chosen precision, or the one that matches the storage when none was chosen */
+    public Precision getPrecision() {
+        if (precision != null) {
+            return precision;
+        }
+
+        return storage == Storage.LIST ? Precision.BIG_DECIMAL : Precision.DOUBLE;
+    }
+
+    public void setPrecision(Precision precision) {
+        this.precision = precision;
+    }
+
+    /** @return whether {@code -precision} was given, rather than following the storage */
+    public boolean isPrecisionChosen() {
+        return precision != null;
+    }
+
+    /** @return the decimal places kept by {@link Complex} divisions; the precision's own when not set */
+    public int getDivideScale() {
+        return divideScale > 0 ? divideScale : getPrecision().getDivideScale();
+    }
+
+    public void setDivideScale(int divideScale) {
+        this.divideScale = divideScale;
+    }
+
+    /** @return the magnitude at or below which a part of a {@link Complex} counts as zero */
+    public BigDecimal getZeroTolerance() {
+        return zeroTolerance;
+    }
+
+    public void setZeroTolerance(BigDecimal zeroTolerance) {
+        this.zeroTolerance = zeroTolerance;
+    }
+
+    /** @return the relative residual the iterative solvers must reach */
+    public double getResidualTolerance() {
+        return residualTolerance;
+    }
+
+    public void setResidualTolerance(double residualTolerance) {
+        this.residualTolerance = residualTolerance;
+    }
+
+    /** @return the most iterations an iterative solver may take */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    /** @return the basis vectors GMRES builds before it restarts */
+    public int getRestart() {
+        return restart;
+    }
+
+    public void setRestart(int restart) {
+        this.restart = restart;
+    }
+
+    public Preconditioner.Type getPreconditioner() {
+        return preconditioner;
+    }
+
+    public void setPreconditioner(Preconditioner.Type preconditioner) {
+        this.preconditioner = preconditioner;
+    }
+
+    /** @return the directory, file name glob or multi-system file to solve in batch, or {@code null} */
+    public String getBatchSource() {
+        return batchSource;
+    }
+
+    public void setBatchSource(String batchSource) {
+        this.batchSource = batchSource;
+    }
+
+    /** @return how many systems are solved at once in batch mode */
+    public int getBatchThreads() {
+        return batchThreads;
+    }
+
+    public void setBatchThreads(int batchThreads) {
+        this.batchThreads = batchThreads;
+    }
+
+    /** @return the port, or {@code unix:<path>}, to serve solutions on, or {@code null} to solve one file */
+    public String getServeAddress() {
+        return serveAddress;
+    }
+
+    public void setServeAddress(String serveAddress) {
+        this.serveAddress = serveAddress;
+    }
+
+    /** @return whether to convert the input file to a binary matrix file instead of solving it */
+    public boolean isConvertToBinary() {
+        return convertToBinary;
+    }
+
+    public void setConvertToBinary(boolean convertToBinary) {
+        this.convertToBinary = convertToBinary;
+    }
+}
@@ -0,0 +1,140 @@
+package solver.main.control;
+
+import solver.main.logic.ParametricSolution;
+import solver.main.logic.ResidualVerifier;
+import solver.main.model.Complex;
+import solver.main.model.Matrix;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writes the output file through one buffered writer, opened once.  In atomic mode the text goes
+ * to a temporary file in the same directory, which is then renamed over the output file, so a
+ * reader of the output file sees either the old contents or the complete new solution.
+ */
+public class SolutionWriter {
+    public static final String NO_SOLUTIONS = "No solutions";
+    public static final String INFINITE_SOLUTIONS = "Infinitely many solutions";
+    public static final String NOT_CONVERGED = "The iterative solver did not converge";
+    public static final String MAX_RESIDUAL = "Max residual: ";
+    public static final String RELATIVE_RESIDUAL = "Relative residual: ";
+
+    private final boolean atomic;
+
+    public SolutionWriter(boolean atomic) {
+        this.atomic = atomic;
+    }
+
+    public void write(Path path, Matrix matrix, Executor.SolutionState state, int numberOfVariables,
+                      int rightHandSides) throws IOException {
+        write(path, matrix, state, numberOfVariables, rightHandSides, null);
+    }
+
+    /** Write the output file, followed by the residuals when the solution was verified */
+    public void write(Path path, Matrix matrix, Executor.SolutionState state, int numberOfVariables,
+                      int rightHandSides, ResidualVerifier.Residuals residuals) throws IOException {
+        if (!atomic) {
+            try (Writer writer = Files.newBufferedWriter(path)) {
+                write(writer, matrix, state, numberOfVariables, rightHandSides);
+                writeResiduals(writer, residuals);
+            }
+
+            return;
+        }
+
+        Path directory = path.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporary)) {
+                write(writer, matrix, state, numberOfVariables, rightHandSides);
+                writeResiduals(writer, residuals);
+            }
+
+            try {
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Write the solution text: a message for no solutions or no convergence, otherwise the values.  Infinitely
+     * many solutions get the message and then, for one right-hand side, the values.
+     */
+    public void write(Writer writer, Matrix matrix, Executor.SolutionState state, int numberOfVariables,
+                      int rightHandSides) throws IOException {
+        if (state == Executor.SolutionState.NO_SOLUTION) {
+            writer.write(NO_SOLUTIONS);
+        } else if (state == Executor.SolutionState.INFINITE_SOLUTIONS) {
+            writer.write(INFINITE_SOLUTIONS);
+
+            if (rightHandSides == 1) {
+                writer.write(System.lineSeparator());
+                writeValues(writer, matrix, state, numberOfVariables, rightHandSides);
+            }
+        } else if (state == Executor.SolutionState.NOT_CONVERGED) {
+            writer.write(NOT_CONVERGED);
+        } else {
+            writeValues(writer, matrix, state, numberOfVariables, rightHandSides);
+        }
+    }
+
+    /** Write the largest residual and relative residual, a line each, unless there are none */
+    public void writeResiduals(Writer writer, ResidualVerifier.Residuals residuals) throws IOException {
+        if (residuals == null) {
+            return;
+        }
+
+        writer.write(String.format("%s%.3e%n%s%.3e%n", MAX_RESIDUAL, residuals.getMax(),
+                RELATIVE_RESIDUAL, residuals.getRelative()));
+    }
+
+    /**
+     * Write one line per variable.  For a solution the line holds one value per right-hand side.  For infinitely
+     * many solutions of one right-hand side it holds the variable's value in a particular solution, then its
+     * component of each vector of a basis of the null space.  Anything else has no values.
+     */
+    public void writeValues(Writer writer, Matrix matrix, Executor.SolutionState state, int numberOfVariables,
+                            int rightHandSides) throws IOException {
+        String lineSeparator = System.lineSeparator();
+
+        if (state == Executor.SolutionState.INFINITE_SOLUTIONS && rightHandSides == 1) {
+            ParametricSolution solution = ParametricSolution.fromReducedForm(matrix, numberOfVariables);
+
+            for (int row = 0; row < numberOfVariables; row++) {
+                writer.write(solution.getParticular()[row].toString());
+
+                for (Complex[] vector : solution.getBasis()) {
+                    writer.write(' ');
+                    writer.write(vector[row].toString());
+                }
+
+                writer.write(lineSeparator);
+            }
+        } else if (state == Executor.SolutionState.SOLUTION) {
+            // One column per right-hand side
+            int firstConstantColumn = matrix.getLineLength() - rightHandSides;
+
+            for (int row = 0; row < numberOfVariables; row++) {
+                for (int column = firstConstantColumn; column < matrix.getLineLength(); column++) {
+                    if (column > firstConstantColumn) {
+                        writer.write(' ');
+                    }
+
+                    writer.write(matrix.getCoefficient(row, column).toString());
+                }
+
+                writer.write(lineSeparator);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package solver.main.control;
+
+import solver.main.logic.BiCgStabSolver;
+import solver.main.logic.ConjugateGradientSolver;
+import solver.main.logic.EquationSolver;
+import solver.main.logic.GmresSolver;
+import solver.main.logic.LinearSolver;
+import solver.main.logic.LuSolver;
+import solver.main.logic.MultipleRightHandSideSolver;
+import solver.main.logic.RefinementSolver;
+import solver.main.logic.ResidualVerifier;
+import solver.main.logic.RowEliminator;
+import solver.main.logic.SparseLuSolver;
+import solver.main.logic.StructuredSolver;
+import solver.main.model.LinearSystem;
+import solver.main.model.Precision;
+import solver.main.trace.Metrics;
+import solver.main.trace.Trace;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Builds the solver the settings ask for and runs it on a system.  The row eliminator, and with it
+ * any thread pool, is made once and shared by every solver built here, and so are the {@link Metrics}
+ * every solve adds to.
+ */
+class SolverFactory {
+    private final Settings settings;
+    private final RowEliminator eliminator;
+    private final Metrics metrics = new Metrics();
+
+    SolverFactory(Settings settings) {
+        this.settings = settings;
+        eliminator = new RowEliminator(settings.getParallelism(), settings.getParallelThreshold());
+    }
+
+    Metrics getMetrics() {
+        return metrics;
+    }
+
+    LinearSolver createSolver(Trace trace) {
+        LinearSolver gaussJordan = createGaussJordan(trace);
+
+        switch (settings.getSolverType()) {
+            case LU:
+                return settings.getStorage() == Settings.Storage.SPARSE
+                        ? new SparseLuSolver(gaussJordan, trace)
+                        : new LuSolver(settings.getBlockSize(), gaussJordan, trace);
+            case REFINEMENT:
+                return new RefinementSolver(settings.getBlockSize(), gaussJordan, trace, settings.getMaxIterations());
+            case STRUCTURED:
+                return new StructuredSolver(settings.getBlockSize(), gaussJordan, trace);
+            case CONJUGATE_GRADIENT:
+                return new ConjugateGradientSolver(gaussJordan, trace, settings.getResidualTolerance(),
+                        settings.getMaxIterations(), settings.getPreconditioner());
+            case BICGSTAB:
+                return new BiCgStabSolver(gaussJordan, trace, settings.getResidualTolerance(),
+                        settings.getMaxIterations(), settings.getPreconditioner());
+            case GMRES:
+                return new GmresSolver(gaussJordan, trace, settings.getResidualTolerance(),
+                        settings.getMaxIterations(), settings.getPreconditioner(), settings.getRestart());
+            default:
+                return gaussJordan;
+        }
+    }
+
+    private LinearSolver createGaussJordan(Trace trace) {
+        return new EquationSolver(eliminator, trace, metrics);
+    }
+
+    /** Solve the system in place, with every right-hand side it has */
+    Executor.SolutionState solve(LinearSystem system, Trace trace) {
+        metrics.countSystem();
+        metrics.sampleMatrix(system.getMatrix());
+
+        Metrics.Timing solving = metrics.time(Metrics.Phase.SOLVE);
+        try {
+            if (system.getRightHandSides() > 1) {
+                // Sparse storage is double whatever the tier says
+                Precision precision = settings.getStorage() == Settings.Storage.SPARSE
+                        ? Precision.DOUBLE
+                        : settings.getPrecision();
+
+                return new MultipleRightHandSideSolver(settings.getBlockSize(), precision,
+                        createGaussJordan(trace), createSolver(trace), trace)
+                        .solve(system.getMatrix(), system.getNumberOfVariables(), system.getRightHandSides());
+            }
+
+            return createSolver(trace).solve(system.getMatrix(), system.getNumberOfVariables());
+        } finally {
+            solving.stop();
+            metrics.sampleMatrix(system.getMatrix());
+        }
+    }
+
+    /**
+     * Copy the system so its solution can be checked, if {@code -verify} asks for that.  Call before solving.
+     * @return the verifier, or {@code null} when not verifying
+     */
+    ResidualVerifier verifier(LinearSystem system) {
+        return settings.isVerify()
+                ? new ResidualVerifier(system.getMatrix(), system.getNumberOfVariables(), system.getRightHandSides())
+                : null;
+    }
+
+    /** Write the metrics as JSON to the file {@code -metrics} names, if it names one */
+    void writeMetrics() {
+        if (settings.getMetricsFileName() == null) {
+            return;
+        }
+
+        try {
+            Files.writeString(Path.of(settings.getMetricsFileName()), metrics.toJson());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
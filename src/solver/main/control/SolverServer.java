@@ -0,0 +1,191 @@
+package solver.main.control;
+
+import solver.main.logic.ResidualVerifier;
+import solver.main.model.LinearSystem;
+import solver.main.trace.Metrics;
+import solver.main.trace.SilentTrace;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Keeps one JVM, with its loaded classes and compiled code, solving systems sent over a local socket:
+ * a TCP port on the loopback address, or a Unix-domain socket given as {@code unix:<path>}.
+ * <p>
+ * A client sends systems in the input file format, one after another on the same connection; each
+ * must end with a line break.  For each one the server answers with the solution state on a line of
+ * its own ({@code SOLUTION}, {@code NO_SOLUTION}, {@code INFINITE_SOLUTIONS} or {@code NOT_CONVERGED}),
+ * then any values, one line per variable as in the output file, with {@code -verify} the residuals as
+ * in the output file, and then an empty line.  A system
+ * that can't be read gets {@code ERROR} and the connection is closed, since there's no telling where
+ * the next system would start.  Every connection is served on its own thread, a virtual thread where
+ * the runtime has them.  Any metrics are written when the server shuts down.
+ */
+public class SolverServer {
+    private static final String UNIX_PREFIX = "unix:";
+    private static final String ERROR = "ERROR";
+
+    private final Settings settings;
+    private final SolverFactory solvers;
+    private final SolutionWriter solutionWriter = new SolutionWriter(false);
+
+    public SolverServer(Settings settings) {
+        this.settings = settings;
+        solvers = new SolverFactory(settings);
+    }
+
+    public void run() {
+        String address = settings.getServeAddress();
+        Path socketFile = address.startsWith(UNIX_PREFIX) ? Path.of(address.substring(UNIX_PREFIX.length())) : null;
+
+        try (ServerSocketChannel server = open(address, socketFile)) {
+            if (server == null) {
+                return;
+            }
+
+            ExecutorService connections = BatchExecutor.newIoExecutor();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                close(server, socketFile);
+                solvers.writeMetrics();
+            }));
+            System.out.println("Listening on " + address);
+
+            try {
+                while (true) {
+                    SocketChannel client = server.accept();
+                    connections.submit(() -> serve(client));
+                }
+            } catch (ClosedChannelException e) {
+                // shut down
+            } finally {
+                connections.shutdown();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            close(null, socketFile);
+        }
+    }
+
+    /** @return the listening channel, or {@code null} if the address is not a port or a socket path */
+    private static ServerSocketChannel open(String address, Path socketFile) throws IOException {
+        SocketAddress socketAddress;
+        ServerSocketChannel server;
+
+        if (socketFile != null) {
+            // A socket file left by a server that didn't shut down cleanly would stop the bind
+            Files.deleteIfExists(socketFile);
+            socketAddress = UnixDomainSocketAddress.of(socketFile);
+            server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+            try {
+                socketAddress = new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Expected a port or unix:<path> to serve on: " + address);
+                return null;
+            }
+
+            server = ServerSocketChannel.open();
+        }
+
+        server.bind(socketAddress);
+
+        return server;
+    }
+
+    private static void close(ServerSocketChannel server, Path socketFile) {
+        try {
+            if (server != null) {
+                server.close();
+            }
+
+            if (socketFile != null) {
+                Files.deleteIfExists(socketFile);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void serve(SocketChannel client) {
+        try (client;
+             Reader in = Channels.newReader(client, StandardCharsets.UTF_8);
+             Writer out = new BufferedWriter(Channels.newWriter(client, StandardCharsets.UTF_8))) {
+            MatrixReader reader = new MatrixReader(in);
+
+            // Each answer is written in one go, so there's nothing to gain by holding it back
+            if (client.supportedOptions().contains(StandardSocketOptions.TCP_NODELAY)) {
+                client.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+
+            while (reader.hasNext()) {
+                Optional<LinearSystem> system;
+
+                Metrics.Timing parsing = solvers.getMetrics().time(Metrics.Phase.PARSE);
+                try {
+                    system = reader.read(settings);
+                } finally {
+                    parsing.stop();
+                }
+
+                if (system.isEmpty()) {
+                    out.write(ERROR + "\n\n");
+                    out.flush();
+                    return;
+                }
+
+                respond(out, system.get());
+                out.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Connection closed: " + e.getMessage());
+        }
+    }
+
+    private void respond(Writer out, LinearSystem system) throws IOException {
+        ResidualVerifier verifier = solvers.verifier(system);
+        Executor.SolutionState state;
+
+        try {
+            state = solvers.solve(system, new SilentTrace());
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            out.write(ERROR + "\n\n");
+            return;
+        }
+
+        out.write(state.name());
+        out.write('\n');
+
+        Metrics.Timing writing = solvers.getMetrics().time(Metrics.Phase.OUTPUT);
+        try {
+            solutionWriter.writeValues(out, system.getMatrix(), state, system.getNumberOfVariables(),
+                    system.getRightHandSides());
+
+            if (verifier != null) {
+                solutionWriter.writeResiduals(out, verifier.verify(system.getMatrix(), state));
+            }
+        } finally {
+            writing.stop();
+        }
+
+        out.write('\n');
+    }
+}
@@ -0,0 +1,263 @@
+package solver.main.logic;
+
+import solver.main.model.Complex;
+import solver.main.model.DoubleMatrix;
+import solver.main.model.Matrix;
+import solver.main.model.RowKernels;
+import solver.main.model.SparseMatrix;
+
+/**
+ * LU factorization of a banded matrix, in complex double arithmetic and compact band storage: each row
+ * keeps only the elements from {@code lower} columns left of the diagonal to {@code reach} right of it,
+ * so memory is O(nb) and the work O(nb<sup>2</sup>) for bandwidth b.
+ * <p>
+ * Triangular and diagonal matrices, and diagonally dominant ones, are factored without pivoting, and
+ * the upper band stays as it is; for a tridiagonal matrix that is the Thomas algorithm.  Otherwise rows
+ * are interchanged for the largest pivot in the column, as in {@link LuFactorization}, and the upper
+ * band may grow by the lower bandwidth.  The multipliers of L stay where they were worked out, and
+ * the row interchanges are applied to the right-hand side as forward substitution reaches them.
+ */
+public class BandedLuFactorization {
+
+    /** A pivot smaller than this, relative to the largest element, means the matrix is singular */
+    private static final double SINGULAR_TOLERANCE = 1e-12;
+
+    private final int size;
+    private final int lower;
+    private final int reach;
+    private final int width;
+    private final boolean pivoting;
+    private final double[] real;
+    private final double[] imaginary;
+    private final int[] pivots;
+
+    private BandedLuFactorization(int size, int lower, int upper, boolean pivoting) {
+        this.size = size;
+        this.lower = lower;
+        this.pivoting = pivoting;
+        reach = pivoting ? lower + upper : upper;
+        width = lower + reach + 1;
+        real = new double[size * width];
+        imaginary = new double[size * width];
+        pivots = new int[size];
+    }
+
+    /**
+     * Factor the square coefficient part of an augmented matrix, whose non-zeros all lie within the
+     * bandwidths.  The matrix is not changed.
+     * @param matrix the augmented matrix
+     * @param size the number of variables, which must equal the number of equations
+     * @param lower the lower bandwidth
+     * @param upper the upper bandwidth
+     * @return the factorization, or {@code null} if the matrix is singular
+     */
+    public static BandedLuFactorization factor(Matrix matrix, int size, int lower, int upper) {
+        boolean pivoting = lower > 0 && upper > 0 && !isDiagonallyDominant(matrix, size, lower, upper);
+        BandedLuFactorization lu = new BandedLuFactorization(size, lower, upper, pivoting);
+        lu.copyFrom(matrix, upper);
+
+        return lu.decompose() ? lu : null;
+    }
+
+    // Every diagonal element at least as large as the rest of its row together, so no pivot can vanish
+    private static boolean isDiagonallyDominant(Matrix matrix, int size, int lower, int upper) {
+        for (int row = 0; row < size; row++) {
+            double diagonal = 0;
+            double rest = 0;
+
+            for (int column = Math.max(0, row - lower); column <= Math.min(size - 1, row + upper); column++) {
+                double magnitude = magnitude(matrix, row, column);
+
+                if (column == row) {
+                    diagonal = magnitude;
+                } else {
+                    rest += magnitude;
+                }
+            }
+
+            if (diagonal == 0 || diagonal < rest) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static double magnitude(Matrix matrix, int row, int column) {
+        if (matrix instanceof DoubleMatrix) {
+            DoubleMatrix dense = (DoubleMatrix) matrix;
+            return Math.hypot(dense.getRealPart(row, column), dense.getImaginaryPart(row, column));
+        }
+
+        Complex coefficient = matrix.getCoefficient(row, column);
+
+        return Math.hypot(coefficient.getReal().doubleValue(), coefficient.getImaginary().doubleValue());
+    }
+
+    private void copyFrom(Matrix matrix, int upper) {
+        for (int row = 0; row < size; row++) {
+            if (matrix instanceof SparseMatrix) {
+                SparseMatrix sparse = (SparseMatrix) matrix;
+
+                for (int k = 0; k < sparse.getRowCount(row) && sparse.getColumnAt(row, k) < size; k++) {
+                    int index = index(row, sparse.getColumnAt(row, k));
+                    real[index] = sparse.getRealAt(row, k);
+                    imaginary[index] = sparse.getImaginaryAt(row, k);
+                }
+
+                continue;
+            }
+
+            for (int column = Math.max(0, row - lower); column <= Math.min(size - 1, row + upper); column++) {
+                int index = index(row, column);
+
+                if (matrix instanceof DoubleMatrix) {
+                    real[index] = ((DoubleMatrix) matrix).getRealPart(row, column);
+                    imaginary[index] = ((DoubleMatrix) matrix).getImaginaryPart(row, column);
+                } else {
+                    Complex coefficient = matrix.getCoefficient(row, column);
+                    real[index] = coefficient.getReal().doubleValue();
+                    imaginary[index] = coefficient.getImaginary().doubleValue();
+                }
+            }
+        }
+    }
+
+    // Element (row, column) of the band, which must be within lower columns left and reach right of the diagonal
+    private int index(int row, int column) {
+        return row * width + column - row + lower;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /** @return whether rows were interchanged for larger pivots */
+    public boolean isPivoting() {
+        return pivoting;
+    }
+
+    /** @return the row that was interchanged with row {@code k} at step {@code k} */
+    public int getPivot(int k) {
+        return pivots[k];
+    }
+
+    /** @return about how many bytes the band takes */
+    public long estimateHeapBytes() {
+        return (long) (real.length + imaginary.length) * Double.BYTES + (long) pivots.length * Integer.BYTES;
+    }
+
+    private boolean decompose() {
+        double largest = 0;
+
+        for (int i = 0; i < real.length; i++) {
+            largest = Math.max(largest, real[i] * real[i] + imaginary[i] * imaginary[i]);
+        }
+
+        // compare squared magnitudes, so square the tolerance too
+        double tolerance = largest * SINGULAR_TOLERANCE * SINGULAR_TOLERANCE;
+
+        for (int k = 0; k < size; k++) {
+            int lastRow = Math.min(size - 1, k + lower);
+            int lastColumn = Math.min(size - 1, k + reach);
+            int pivot = k;
+            double best = magnitudeSquared(index(k, k));
+
+            for (int row = k + 1; pivoting && row <= lastRow; row++) {
+                double magnitude = magnitudeSquared(index(row, k));
+
+                if (magnitude > best) {
+                    best = magnitude;
+                    pivot = row;
+                }
+            }
+
+            if (best <= tolerance) {
+                return false;
+            }
+
+            pivots[k] = pivot;
+
+            // Only the columns from k on move; the multipliers left of them stay with their step
+            if (pivot != k) {
+                for (int column = k; column <= lastColumn; column++) {
+                    swap(index(k, column), index(pivot, column));
+                }
+            }
+
+            int diagonal = index(k, k);
+            double denominator = magnitudeSquared(diagonal);
+            double inverseReal = real[diagonal] / denominator;
+            double inverseImaginary = -imaginary[diagonal] / denominator;
+
+            for (int row = k + 1; row <= lastRow; row++) {
+                int index = index(row, k);
+                double lowerReal = real[index] * inverseReal - imaginary[index] * inverseImaginary;
+                double lowerImaginary = real[index] * inverseImaginary + imaginary[index] * inverseReal;
+                real[index] = lowerReal;
+                imaginary[index] = lowerImaginary;
+
+                if ((lowerReal != 0 || lowerImaginary != 0) && lastColumn > k) {
+                    RowKernels.complexAxpy(-lowerReal, -lowerImaginary, real, imaginary, index(k, k + 1),
+                            real, imaginary, index(row, k + 1), lastColumn - k);
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private double magnitudeSquared(int index) {
+        return real[index] * real[index] + imaginary[index] * imaginary[index];
+    }
+
+    private void swap(int first, int second) {
+        double temp = real[first];
+        real[first] = real[second];
+        real[second] = temp;
+        temp = imaginary[first];
+        imaginary[first] = imaginary[second];
+        imaginary[second] = temp;
+    }
+
+    /**
+     * Solve {@code Ax = b} in place: forward substitute through L, interchanging as the factorization
+     * did, then back substitute through U.  Each costs O(nb).
+     * @param bReal real parts of the right-hand side, replaced by the solution
+     * @param bImaginary imaginary parts of the right-hand side, replaced by the solution
+     */
+    public void solve(double[] bReal, double[] bImaginary) {
+        for (int k = 0; k < size; k++) {
+            int pivot = pivots[k];
+
+            if (pivot != k) {
+                double temp = bReal[k];
+                bReal[k] = bReal[pivot];
+                bReal[pivot] = temp;
+                temp = bImaginary[k];
+                bImaginary[k] = bImaginary[pivot];
+                bImaginary[pivot] = temp;
+            }
+
+            for (int row = k + 1; row <= Math.min(size - 1, k + lower); row++) {
+                int index = index(row, k);
+                bReal[row] -= real[index] * bReal[k] - imaginary[index] * bImaginary[k];
+                bImaginary[row] -= real[index] * bImaginary[k] + imaginary[index] * bReal[k];
+            }
+        }
+
+        double[] sum = new double[2];
+
+        for (int row = size - 1; row >= 0; row--) {
+            sum[0] = bReal[row];
+            sum[1] = bImaginary[row];
+            int length = Math.min(size - 1, row + reach) - row;
+            RowKernels.subtractDot(real, imaginary, index(row, row + 1), bReal, bImaginary, row + 1, length, sum);
+
+            int diagonal = index(row, row);
+            double denominator = magnitudeSquared(diagonal);
+            bReal[row] = (sum[0] * real[diagonal] + sum[1] * imaginary[diagonal]) / denominator;
+            bImaginary[row] = (sum[1] * real[diagonal] - sum[0] * imaginary[diagonal]) / denominator;
+        }
+    }
+}
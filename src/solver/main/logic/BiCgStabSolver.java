@@ -0,0 +1,114 @@
+package solver.main.logic;
+
+import solver.main.trace.Trace;
+
+/**
+ * Right-preconditioned BiCGSTAB (biconjugate gradient stabilized), for general non-Hermitian
+ * systems.  Each iteration costs two products with the coefficients and needs a fixed amount of memory.
+ */
+public class BiCgStabSolver extends KrylovSolver {
+
+    public BiCgStabSolver(LinearSolver fallback, Trace trace, double tolerance, int maxIterations,
+                          Preconditioner.Type preconditionerType) {
+        super(fallback, trace, tolerance, maxIterations, preconditionerType);
+    }
+
+    @Override
+    protected void iterate(SparseOperator operator, Preconditioner preconditioner,
+                           double[] constantsReal, double[] constantsImaginary, double constantsNorm,
+                           double[] real, double[] imaginary) {
+        int size = operator.size;
+        double[] residualReal = new double[size];
+        double[] residualImaginary = new double[size];
+        ComplexVectors.residual(operator, real, imaginary, constantsReal, constantsImaginary,
+                residualReal, residualImaginary);
+
+        double[] shadowReal = residualReal.clone();
+        double[] shadowImaginary = residualImaginary.clone();
+        double[] directionReal = new double[size];
+        double[] directionImaginary = new double[size];
+        double[] vReal = new double[size];
+        double[] vImaginary = new double[size];
+        double[] preconditionedReal = new double[size];
+        double[] preconditionedImaginary = new double[size];
+        double[] tReal = new double[size];
+        double[] tImaginary = new double[size];
+        double[] rho = {1, 0};
+        double[] alpha = {1, 0};
+        double[] omega = {1, 0};
+        double[] scalar = new double[2];
+        double[] beta = new double[2];
+
+        while (getIterations() < maxIterations) {
+            double[] rhoNext = new double[2];
+            ComplexVectors.dot(shadowReal, shadowImaginary, residualReal, residualImaginary, rhoNext);
+
+            if (rhoNext[0] == 0 && rhoNext[1] == 0) {
+                trace.message("BiCGSTAB broke down");
+                return;
+            }
+
+            // beta = (rho' / rho) * (alpha / omega), then p = r + beta (p - omega v)
+            ComplexVectors.divide(rhoNext[0], rhoNext[1], rho[0], rho[1], beta);
+            ComplexVectors.divide(alpha[0], alpha[1], omega[0], omega[1], scalar);
+            double betaReal = beta[0] * scalar[0] - beta[1] * scalar[1];
+            double betaImaginary = beta[0] * scalar[1] + beta[1] * scalar[0];
+            rho = rhoNext;
+
+            for (int i = 0; i < size; i++) {
+                double differenceReal = directionReal[i] - (omega[0] * vReal[i] - omega[1] * vImaginary[i]);
+                double differenceImaginary = directionImaginary[i] - (omega[0] * vImaginary[i] + omega[1] * vReal[i]);
+                directionReal[i] = residualReal[i] + betaReal * differenceReal - betaImaginary * differenceImaginary;
+                directionImaginary[i] = residualImaginary[i] + betaReal * differenceImaginary
+                        + betaImaginary * differenceReal;
+            }
+
+            preconditioner.apply(directionReal, directionImaginary, preconditionedReal, preconditionedImaginary);
+            operator.multiply(preconditionedReal, preconditionedImaginary, vReal, vImaginary);
+            ComplexVectors.dot(shadowReal, shadowImaginary, vReal, vImaginary, scalar);
+
+            if (scalar[0] == 0 && scalar[1] == 0) {
+                trace.message("BiCGSTAB broke down");
+                return;
+            }
+
+            // alpha = rho / (r^, v), then s = r - alpha v, kept in the residual arrays
+            ComplexVectors.divide(rho[0], rho[1], scalar[0], scalar[1], alpha);
+            ComplexVectors.addMultiple(alpha[0], alpha[1], preconditionedReal, preconditionedImaginary,
+                    real, imaginary);
+            ComplexVectors.addMultiple(-alpha[0], -alpha[1], vReal, vImaginary, residualReal, residualImaginary);
+
+            if (ComplexVectors.norm(residualReal, residualImaginary) / constantsNorm <= tolerance) {
+                record(ComplexVectors.norm(residualReal, residualImaginary) / constantsNorm);
+                return;
+            }
+
+            preconditioner.apply(residualReal, residualImaginary, preconditionedReal, preconditionedImaginary);
+            operator.multiply(preconditionedReal, preconditionedImaginary, tReal, tImaginary);
+            ComplexVectors.dot(tReal, tImaginary, tReal, tImaginary, scalar);
+            double tNorm = scalar[0];
+            ComplexVectors.dot(tReal, tImaginary, residualReal, residualImaginary, omega);
+
+            if (tNorm == 0) {
+                trace.message("BiCGSTAB broke down");
+                return;
+            }
+
+            // omega = (t, s) / (t, t), then x += omega s^ and r = s - omega t
+            omega[0] /= tNorm;
+            omega[1] /= tNorm;
+            ComplexVectors.addMultiple(omega[0], omega[1], preconditionedReal, preconditionedImaginary,
+                    real, imaginary);
+            ComplexVectors.addMultiple(-omega[0], -omega[1], tReal, tImaginary, residualReal, residualImaginary);
+
+            if (record(ComplexVectors.norm(residualReal, residualImaginary) / constantsNorm)) {
+                return;
+            }
+
+            if (omega[0] == 0 && omega[1] == 0) {
+                trace.message("BiCGSTAB broke down");
+                return;
+            }
+        }
+    }
+}
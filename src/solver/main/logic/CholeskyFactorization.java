@@ -0,0 +1,171 @@
+package solver.main.logic;
+
+import solver.main.model.Complex;
+import solver.main.model.DoubleMatrix;
+import solver.main.model.Matrix;
+import solver.main.model.RowKernels;
+import solver.main.model.SparseMatrix;
+
+/**
+ * Cholesky factorization of a Hermitian positive-definite matrix, {@code A = LL<sup>H</sup>}, in complex
+ * double arithmetic.  Only the lower triangle is read and kept, packed row after row, so it takes half the
+ * memory of {@link LuFactorization} and half its work, with no pivoting.
+ * <p>
+ * Each element of L is its matrix element less the Hermitian inner product of two rows of L, so the work
+ * is done row by row in tiles of {@code blockSize} rows, which reuse the same rows above while they are
+ * in cache.  A pivot that is not clearly positive means the matrix is not positive definite, and the
+ * factorization is abandoned.
+ */
+public class CholeskyFactorization {
+
+    /** A pivot smaller than this, relative to the largest diagonal element, is not positive */
+    private static final double SINGULAR_TOLERANCE = 1e-12;
+
+    private final int size;
+    private final double[] real;
+    private final double[] imaginary;
+
+    private CholeskyFactorization(int size) {
+        this.size = size;
+        real = new double[size * (size + 1) / 2];
+        imaginary = new double[size * (size + 1) / 2];
+    }
+
+    /**
+     * Factor the square coefficient part of an augmented matrix, which must be Hermitian.  The matrix is
+     * not changed.
+     * @param matrix the augmented matrix
+     * @param size the number of variables, which must equal the number of equations
+     * @param blockSize the tile edge, in rows
+     * @return the factorization, or {@code null} if the matrix is not positive definite
+     */
+    public static CholeskyFactorization factor(Matrix matrix, int size, int blockSize) {
+        CholeskyFactorization cholesky = new CholeskyFactorization(size);
+        cholesky.copyFrom(matrix);
+
+        return cholesky.decompose(Math.max(1, blockSize)) ? cholesky : null;
+    }
+
+    private void copyFrom(Matrix matrix) {
+        for (int row = 0; row < size; row++) {
+            if (matrix instanceof SparseMatrix) {
+                SparseMatrix sparse = (SparseMatrix) matrix;
+
+                for (int k = 0; k < sparse.getRowCount(row) && sparse.getColumnAt(row, k) <= row; k++) {
+                    int index = index(row, sparse.getColumnAt(row, k));
+                    real[index] = sparse.getRealAt(row, k);
+                    imaginary[index] = sparse.getImaginaryAt(row, k);
+                }
+
+                continue;
+            }
+
+            for (int column = 0; column <= row; column++) {
+                int index = index(row, column);
+
+                if (matrix instanceof DoubleMatrix) {
+                    real[index] = ((DoubleMatrix) matrix).getRealPart(row, column);
+                    imaginary[index] = ((DoubleMatrix) matrix).getImaginaryPart(row, column);
+                } else {
+                    Complex coefficient = matrix.getCoefficient(row, column);
+                    real[index] = coefficient.getReal().doubleValue();
+                    imaginary[index] = coefficient.getImaginary().doubleValue();
+                }
+            }
+        }
+    }
+
+    // Element (row, column) of the lower triangle, column <= row
+    private static int index(int row, int column) {
+        return row * (row + 1) / 2 + column;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /** @return about how many bytes the triangle takes */
+    public long estimateHeapBytes() {
+        return (long) (real.length + imaginary.length) * Double.BYTES;
+    }
+
+    private boolean decompose(int blockSize) {
+        double largest = 0;
+
+        for (int row = 0; row < size; row++) {
+            largest = Math.max(largest, real[index(row, row)]);
+        }
+
+        double tolerance = largest * SINGULAR_TOLERANCE;
+        double[] sum = new double[2];
+
+        // Tile (I, J) needs rows of tile J complete left of J, and the rows of I left of J: both done already
+        for (int rowTile = 0; rowTile < size; rowTile += blockSize) {
+            int rowTileEnd = Math.min(rowTile + blockSize, size);
+
+            for (int columnTile = 0; columnTile <= rowTile; columnTile += blockSize) {
+                int columnTileEnd = Math.min(columnTile + blockSize, size);
+
+                for (int row = rowTile; row < rowTileEnd; row++) {
+                    for (int column = columnTile; column < Math.min(columnTileEnd, row + 1); column++) {
+                        int index = index(row, column);
+                        sum[0] = real[index];
+                        sum[1] = imaginary[index];
+                        RowKernels.subtractConjugateDot(real, imaginary, index(row, 0), real, imaginary,
+                                index(column, 0), column, sum);
+
+                        if (column < row) {
+                            // The diagonal of L is real
+                            double diagonal = real[index(column, column)];
+                            real[index] = sum[0] / diagonal;
+                            imaginary[index] = sum[1] / diagonal;
+                        } else if (sum[0] <= tolerance) {
+                            return false;
+                        } else {
+                            real[index] = Math.sqrt(sum[0]);
+                            imaginary[index] = 0;
+                        }
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Solve {@code Ax = b} in place: forward substitute through L, then back substitute through
+     * L<sup>H</sup>, a row of L at a time.
+     * @param bReal real parts of the right-hand side, replaced by the solution
+     * @param bImaginary imaginary parts of the right-hand side, replaced by the solution
+     */
+    public void solve(double[] bReal, double[] bImaginary) {
+        double[] sum = new double[2];
+
+        for (int row = 0; row < size; row++) {
+            sum[0] = bReal[row];
+            sum[1] = bImaginary[row];
+            RowKernels.subtractDot(real, imaginary, index(row, 0), bReal, bImaginary, 0, row, sum);
+            double diagonal = real[index(row, row)];
+            bReal[row] = sum[0] / diagonal;
+            bImaginary[row] = sum[1] / diagonal;
+        }
+
+        // Row i of L is column i of its conjugate transpose, so each solved value is taken out of those above
+        for (int row = size - 1; row >= 0; row--) {
+            int start = index(row, 0);
+            double diagonal = real[start + row];
+            double valueReal = bReal[row] / diagonal;
+            double valueImaginary = bImaginary[row] / diagonal;
+            bReal[row] = valueReal;
+            bImaginary[row] = valueImaginary;
+
+            for (int column = 0; column < row; column++) {
+                double lowerReal = real[start + column];
+                double lowerImaginary = imaginary[start + column];
+                bReal[column] -= lowerReal * valueReal + lowerImaginary * valueImaginary;
+                bImaginary[column] -= lowerReal * valueImaginary - lowerImaginary * valueReal;
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package solver.main.logic;
+
+import solver.main.model.RowKernels;
+
+/**
+ * Complex vector arithmetic on split real and imaginary arrays, for the iterative solvers.
+ * Inner products conjugate their first argument.
+ */
+final class ComplexVectors {
+
+    private ComplexVectors() {
+    }
+
+    /** result = (sum of conj(a) * b) as {real, imaginary} */
+    static void dot(double[] aReal, double[] aImaginary, double[] bReal, double[] bImaginary, double[] result) {
+        double real = 0;
+        double imaginary = 0;
+
+        for (int i = 0; i < aReal.length; i++) {
+            real += aReal[i] * bReal[i] + aImaginary[i] * bImaginary[i];
+            imaginary += aReal[i] * bImaginary[i] - aImaginary[i] * bReal[i];
+        }
+
+        result[0] = real;
+        result[1] = imaginary;
+    }
+
+    static double norm(double[] real, double[] imaginary) {
+        double sum = 0;
+
+        for (int i = 0; i < real.length; i++) {
+            sum += real[i] * real[i] + imaginary[i] * imaginary[i];
+        }
+
+        return Math.sqrt(sum);
+    }
+
+    /** y += alpha * x */
+    static void addMultiple(double alphaReal, double alphaImaginary, double[] xReal, double[] xImaginary,
+                            double[] yReal, double[] yImaginary) {
+        RowKernels.complexAxpy(alphaReal, alphaImaginary, xReal, xImaginary, 0, yReal, yImaginary, 0, yReal.length);
+    }
+
+    /** r = b - A x */
+    static void residual(SparseOperator operator, double[] xReal, double[] xImaginary, double[] bReal,
+                         double[] bImaginary, double[] rReal, double[] rImaginary) {
+        operator.multiply(xReal, xImaginary, rReal, rImaginary);
+
+        for (int i = 0; i < rReal.length; i++) {
+            rReal[i] = bReal[i] - rReal[i];
+            rImaginary[i] = bImaginary[i] - rImaginary[i];
+        }
+    }
+
+    /** result = a / b as {real, imaginary} */
+    static void divide(double aReal, double aImaginary, double bReal, double bImaginary, double[] result) {
+        double denominator = bReal * bReal + bImaginary * bImaginary;
+        double real = (aReal * bReal + aImaginary * bImaginary) / denominator;
+        result[1] = (aImaginary * bReal - aReal * bImaginary) / denominator;
+        result[0] = real;
+    }
+}
@@ -0,0 +1,73 @@
+package solver.main.logic;
+
+import solver.main.trace.Trace;
+
+/**
+ * Preconditioned conjugate gradient, for Hermitian positive-definite systems.  On other systems it
+ * may not converge, which is then reported rather than hidden.
+ */
+public class ConjugateGradientSolver extends KrylovSolver {
+
+    public ConjugateGradientSolver(LinearSolver fallback, Trace trace, double tolerance, int maxIterations,
+                                   Preconditioner.Type preconditionerType) {
+        super(fallback, trace, tolerance, maxIterations, preconditionerType);
+    }
+
+    @Override
+    protected void iterate(SparseOperator operator, Preconditioner preconditioner,
+                           double[] constantsReal, double[] constantsImaginary, double constantsNorm,
+                           double[] real, double[] imaginary) {
+        int size = operator.size;
+        double[] residualReal = new double[size];
+        double[] residualImaginary = new double[size];
+        double[] preconditionedReal = new double[size];
+        double[] preconditionedImaginary = new double[size];
+        double[] productReal = new double[size];
+        double[] productImaginary = new double[size];
+        double[] scalar = new double[2];
+        double[] rho = new double[2];
+
+        ComplexVectors.residual(operator, real, imaginary, constantsReal, constantsImaginary,
+                residualReal, residualImaginary);
+        preconditioner.apply(residualReal, residualImaginary, preconditionedReal, preconditionedImaginary);
+        double[] directionReal = preconditionedReal.clone();
+        double[] directionImaginary = preconditionedImaginary.clone();
+        ComplexVectors.dot(residualReal, residualImaginary, preconditionedReal, preconditionedImaginary, rho);
+
+        while (getIterations() < maxIterations) {
+            operator.multiply(directionReal, directionImaginary, productReal, productImaginary);
+            ComplexVectors.dot(directionReal, directionImaginary, productReal, productImaginary, scalar);
+
+            if (scalar[0] == 0 && scalar[1] == 0) {
+                trace.message("Conjugate gradient broke down");
+                return;
+            }
+
+            // alpha = rho / (p, Ap)
+            ComplexVectors.divide(rho[0], rho[1], scalar[0], scalar[1], scalar);
+            ComplexVectors.addMultiple(scalar[0], scalar[1], directionReal, directionImaginary, real, imaginary);
+            ComplexVectors.addMultiple(-scalar[0], -scalar[1], productReal, productImaginary,
+                    residualReal, residualImaginary);
+
+            if (record(ComplexVectors.norm(residualReal, residualImaginary) / constantsNorm)) {
+                return;
+            }
+
+            preconditioner.apply(residualReal, residualImaginary, preconditionedReal, preconditionedImaginary);
+            double[] rhoNext = new double[2];
+            ComplexVectors.dot(residualReal, residualImaginary, preconditionedReal, preconditionedImaginary, rhoNext);
+
+            // beta = rho' / rho, then p = z + beta p
+            ComplexVectors.divide(rhoNext[0], rhoNext[1], rho[0], rho[1], scalar);
+            rho = rhoNext;
+
+            for (int i = 0; i < size; i++) {
+                double newReal = preconditionedReal[i] + scalar[0] * directionReal[i]
+                        - scalar[1] * directionImaginary[i];
+                directionImaginary[i] = preconditionedImaginary[i] + scalar[0] * directionImaginary[i]
+                        + scalar[1] * directionReal[i];
+                directionReal[i] = newReal;
+            }
+        }
+    }
+}
@@ -3,133 +3,254 @@ package solver.main.logic;
 import solver.main.control.Executor;
 import solver.main.model.Complex;
 import solver.main.model.Matrix;
+import solver.main.model.MutableComplex;
+import solver.main.model.PermutedMatrix;
 import solver.main.model.Swap;
-
-import java.util.Stack;
-
-public class EquationSolver {
-    private final Stack<Swap> swaps = new Stack<>();
+import solver.main.trace.EliminationEvent;
+import solver.main.trace.Metrics;
+import solver.main.trace.PrintTrace;
+import solver.main.trace.Trace;
+
+/**
+ * Gauss-Jordan elimination.  Forward elimination counts the rank as it goes, which settles the solution
+ * state without another pass over the matrix.  When some variables are free the matrix is still reduced,
+ * to the form {@link ParametricSolution} reads.
+ * <p>
+ * Rows and columns are swapped in a {@link PermutedMatrix} over the matrix, so a swap moves nothing;
+ * the rows are put in order once, at the end.
+ * <p>
+ * Everything that changes during a solve lives in a {@code Workspace} made for that solve, so one
+ * solver may solve many systems at once from different threads, as long as its trace can take that.
+ * The operations are counted there too, and added to the {@link Metrics} once the solve is done.
+ */
+public class EquationSolver implements LinearSolver {
     private final NonZeroCoefficientFinder finder = new NonZeroCoefficientFinder();
     private final SolutionChecker checker = new SolutionChecker();
+    private final RowEliminator eliminator;
+    private final Trace trace;
+    private final Metrics metrics;
+
+    /** Sequential solver that prints every row manipulation */
+    public EquationSolver() {
+        this(new RowEliminator(), new PrintTrace(System.out));
+    }
+
+    public EquationSolver(RowEliminator eliminator, Trace trace) {
+        this(eliminator, trace, new Metrics());
+    }
 
+    public EquationSolver(RowEliminator eliminator, Trace trace, Metrics metrics) {
+        this.eliminator = eliminator;
+        this.trace = trace;
+        this.metrics = metrics;
+    }
+
+    @Override
     public Executor.SolutionState solve(Matrix matrix, int numberOfVariables) {
-        zeroCoefficientsBelow(matrix);
-        Executor.SolutionState state = checker.checkForSolution(matrix, numberOfVariables);
+        EliminationEvent event = new EliminationEvent();
+        event.begin();
+        Workspace workspace = new Workspace(matrix.getSize());
+        PermutedMatrix permuted = new PermutedMatrix(matrix);
+
+        Metrics.Timing forwardElimination = metrics.time(Metrics.Phase.FORWARD_ELIMINATION);
+        try {
+            zeroCoefficientsBelow(permuted, numberOfVariables, workspace);
+        } finally {
+            forwardElimination.stop();
+        }
 
-        if (state != Executor.SolutionState.SOLUTION) {
-            return state;
+        metrics.sampleMatrix(matrix);
+        Executor.SolutionState state = checker.checkForSolution(permuted, numberOfVariables, workspace.rank);
+        workspace.zeroChecks += matrix.getSize() - workspace.rank;
+
+        // With free variables too, reduced row echelon form is what the parametric solution is read from
+        if (state != Executor.SolutionState.NO_SOLUTION) {
+            Metrics.Timing backSubstitution = metrics.time(Metrics.Phase.BACK_SUBSTITUTION);
+            try {
+                createUnitDiagonal(permuted, workspace);
+                zeroCoefficientsAbove(permuted, workspace);
+            } finally {
+                backSubstitution.stop();
+            }
         }
 
-        createUnitDiagonal(matrix);
-        zeroCoefficientsAbove(matrix);
-        undoSwaps(matrix);
+        undoSwaps(permuted);
+        record(workspace, event, matrix, numberOfVariables, state);
 
-        return Executor.SolutionState.SOLUTION;
+        return state;
     }
 
-    private void zeroCoefficientsBelow(Matrix matrix) {
+    private void record(Workspace workspace, EliminationEvent event, Matrix matrix, int numberOfVariables,
+                        Executor.SolutionState state) {
+        metrics.add(Metrics.Counter.MULTIPLIES, workspace.multiplies);
+        metrics.add(Metrics.Counter.DIVIDES, workspace.divides);
+        metrics.add(Metrics.Counter.ZERO_CHECKS, workspace.zeroChecks);
+        metrics.add(Metrics.Counter.ROW_SWAPS, workspace.rowSwaps);
+        metrics.add(Metrics.Counter.COLUMN_SWAPS, workspace.columnSwaps);
+
+        if (event.shouldCommit()) {
+            event.equations = matrix.getSize();
+            event.variables = numberOfVariables;
+            event.rank = workspace.rank;
+            event.state = state.name();
+            event.multiplies = workspace.multiplies;
+            event.divides = workspace.divides;
+            event.zeroChecks = workspace.zeroChecks;
+            event.rowSwaps = workspace.rowSwaps;
+            event.columnSwaps = workspace.columnSwaps;
+            event.commit();
+        }
+    }
 
-        // loop through all except the last, as you need to compare the row below
-        for (int sourceRow = 0, column = 0;
-                 sourceRow < matrix.getSize() - 1 && column < matrix.getLineLength() - 1;
-                 sourceRow++, column++) {
+    /**
+     * Reduce the matrix to row echelon form with the pivots on the diagonal.  A column with nothing but
+     * zeros from the current row down has no pivot, so the next column right that has one is swapped in;
+     * the columns left at the end, when no coefficient is left, belong to the free variables.  That picks
+     * the same pivots as passing over such columns would, so the matrix below ends up the same.  Only the
+     * variables' columns are searched: every column after them holds constants.
+     */
+    private void zeroCoefficientsBelow(Matrix matrix, int numberOfVariables, Workspace workspace) {
+        int sourceRow = 0;
 
-            Complex sourceCoefficient = matrix.getCoefficient(sourceRow, column);
+        for (; sourceRow < matrix.getSize() && sourceRow < numberOfVariables; sourceRow++) {
+            int column = sourceRow;
+            workspace.zeroChecks++;
 
             // Avoid dividing by zero
-            if (sourceCoefficient.isZero()) {
+            if (matrix.isZero(sourceRow, column)) {
 
-                // search for non-zero coefficient
+                // search down the column, then right of it, for a non-zero coefficient
                 Swap swap = finder.findNonZeroCoefficient(matrix, sourceRow, column);
 
-                // if no non-zero coefficient found, the algorithm is over
                 if (swap.isEmpty()) {
-                    break;
+                    swap = finder.findNonZeroColumn(matrix, sourceRow, column, numberOfVariables);
                 }
 
-                printSwapInfo(swap);
-                matrix.swap(swap);
-                swaps.push(swap);
-
-                // SourceCoefficient has changed after the swap, so get it again
-                sourceCoefficient = matrix.getCoefficient(sourceRow, column);
-
-                // We swapped to get a non-zero coefficient, so something's wrong if it's zero still
-                if (sourceCoefficient.isZero()) {
-                    System.err.println("Coefficient is zero");
+                // if no non-zero coefficient is left, the remaining variables are free
+                if (swap.isEmpty()) {
+                    workspace.zeroChecks += (long) (matrix.getSize() - sourceRow) * (numberOfVariables - column) - 1;
                     break;
                 }
+
+                workspace.zeroChecks += (long) (matrix.getSize() - sourceRow) * (swap.getColFrom() - column)
+                        + swap.getRowFrom() - sourceRow;
+
+                trace.swap(swap);
+                matrix.swap(swap);
+                workspace.count(swap);
             }
 
-            // Loop through all equations below the current one, zeroing them
-            for (int targetRow = sourceRow + 1; targetRow < matrix.getSize(); targetRow++) {
-                Complex targetCoefficient = matrix.getCoefficient(targetRow, column);
+            // Loop through all equations below the current one, collecting the multipliers that zero them
+            Complex inverse = workspace.inverse(matrix.getCoefficient(sourceRow, column));
+            int count = 0;
 
-                if (!targetCoefficient.isZero()) {
-                    Complex multiplier = Matrix.createMultiplier(sourceCoefficient, targetCoefficient);
-                    System.out.printf("%s * R%d + R%d -> R%d%n",
-                            multiplier, sourceRow + 1, targetRow + 1, targetRow + 1);
-                    matrix.zeroTarget(sourceRow, targetRow, multiplier);
+            for (int targetRow = sourceRow + 1; targetRow < matrix.getSize(); targetRow++) {
+                workspace.zeroChecks++;
+
+                if (!matrix.isZero(targetRow, column)) {
+                    Complex multiplier = workspace.multiplier(matrix.getCoefficient(targetRow, column), inverse);
+                    trace.addRow(multiplier, sourceRow, targetRow);
+                    workspace.targets[count] = targetRow;
+                    workspace.multipliers[count] = multiplier;
+                    count++;
                 }
             }
-        }
-    }
-
-    private void printSwapInfo(Swap swap) {
-        if (swap.getRowFrom() != swap.getRowTo()) {
-            System.out.printf("R%d <-> R%d%n", swap.getRowFrom() + 1, swap.getRowTo() + 1);
 
+            // The target rows don't depend on each other, so they may be zeroed in parallel
+            eliminator.apply(matrix, sourceRow, workspace.targets, workspace.multipliers, count, column);
+            workspace.multiplies += (long) count * (matrix.getLineLength() - column);
         }
 
-        if (swap.getColFrom() != swap.getColTo()) {
-            System.out.printf("C%d <-> C%d%n", swap.getColFrom() + 1, swap.getColTo() + 1);
-        }
+        workspace.rank = sourceRow;
     }
 
-    private void zeroCoefficientsAbove(Matrix matrix) {
-        int column = 1;
+    private void zeroCoefficientsAbove(Matrix matrix, Workspace workspace) {
 
-        // Loop through all rows except the first, as you need to examine the row above
-        for (int sourceRow = 1; sourceRow < matrix.getSize(); sourceRow++) {
+        // Loop through all pivot rows except the first, as you need to examine the row above
+        for (int sourceRow = 1; sourceRow < workspace.rank; sourceRow++) {
+            int column = sourceRow;
             Complex sourceCoefficient = matrix.getCoefficient(sourceRow, column);
 
-            // Avoid dividing by zero
-            if (!sourceCoefficient.isZero()) {
-
-                // Loop through all equations above the current one
-                for (int targetRow = sourceRow - 1; targetRow >= 0; targetRow--) {
-                    Complex targetCoefficient = matrix.getCoefficient(targetRow, column);
-
-                    if (!targetCoefficient.isZero()) {
-                        Complex multiplier = Matrix.createMultiplier(sourceCoefficient, targetCoefficient);
-                        System.out.printf("%s * R%d + R%d -> R%d%n",
-                                multiplier, sourceRow + 1, targetRow + 1, targetRow + 1);
-                        matrix.zeroTarget(sourceRow, targetRow, multiplier);
-                    }
+            // Loop through all equations above the current one
+            Complex inverse = workspace.inverse(sourceCoefficient);
+            int count = 0;
+
+            for (int targetRow = sourceRow - 1; targetRow >= 0; targetRow--) {
+                workspace.zeroChecks++;
+
+                if (!matrix.isZero(targetRow, column)) {
+                    Complex multiplier = workspace.multiplier(matrix.getCoefficient(targetRow, column), inverse);
+                    trace.addRow(multiplier, sourceRow, targetRow);
+                    workspace.targets[count] = targetRow;
+                    workspace.multipliers[count] = multiplier;
+                    count++;
                 }
             }
 
-            column++;
+            eliminator.apply(matrix, sourceRow, workspace.targets, workspace.multipliers, count, column);
+            workspace.multiplies += (long) count * (matrix.getLineLength() - column);
         }
     }
 
-    private void createUnitDiagonal(Matrix matrix) {
-        int column = 0;
-
-        for (int row = 0; row < matrix.getSize(); row++) {
-            Complex coefficient = matrix.getCoefficient(row, column);
+    private void createUnitDiagonal(Matrix matrix, Workspace workspace) {
+        for (int row = 0; row < workspace.rank; row++) {
+            Complex coefficient = matrix.getCoefficient(row, row);
 
-            if (!coefficient.isZero() && !coefficient.equals(Complex.ONE)) {
-                Complex multiplier = coefficient.inverse();
-                System.out.printf("%s * R%d -> R%d%n", multiplier, row + 1, row + 1);
+            if (!coefficient.equals(Complex.ONE)) {
+                Complex multiplier = workspace.inverse(coefficient);
+                trace.multiplyRow(multiplier, row);
                 matrix.multiplyRow(row, multiplier);
+                workspace.multiplies += matrix.getLineLength();
             }
-
-            column++;
         }
     }
 
-    private void undoSwaps(Matrix matrix) {
-        // TODO, no-op at the moment
+    /**
+     * Put the rows of the matrix being solved in the order the swaps left them in, so each pivot row
+     * comes before the rows below it.  The columns were never moved there, so each variable's column is
+     * where it started, and the pivots run left to right: reduced row echelon form in the variables'
+     * own order.
+     */
+    private void undoSwaps(PermutedMatrix matrix) {
+        matrix.applyRowOrder();
+    }
+
+    /** The state of one solve */
+    private static class Workspace {
+        private final int[] targets;
+        private final Complex[] multipliers;
+        private final MutableComplex product = new MutableComplex();
+        private int rank = 0;
+        private long multiplies = 0;
+        private long divides = 0;
+        private long zeroChecks = 0;
+        private long rowSwaps = 0;
+        private long columnSwaps = 0;
+
+        private Workspace(int size) {
+            targets = new int[size];
+            multipliers = new Complex[size];
+        }
+
+        /**
+         * The multiplier that zeroes the target when the source row is added, {@code -target / source}.
+         * The source's inverse is worked out once per pivot, rather than dividing for every target.
+         */
+        private Complex multiplier(Complex target, Complex sourceInverse) {
+            multiplies++;
+
+            return product.set(Complex.ZERO).fms(target, sourceInverse).toComplex();
+        }
+
+        private void count(Swap swap) {
+            rowSwaps += swap.getRowFrom() != swap.getRowTo() ? 1 : 0;
+            columnSwaps += swap.getColFrom() != swap.getColTo() ? 1 : 0;
+        }
+
+        private Complex inverse(Complex pivot) {
+            divides++;
+
+            return pivot.inverse();
+        }
     }
 }
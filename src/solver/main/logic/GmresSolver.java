@@ -0,0 +1,182 @@
+package solver.main.logic;
+
+import solver.main.trace.Trace;
+
+import java.util.Arrays;
+
+/**
+ * Restarted GMRES(m) with right preconditioning, for general systems.  Each cycle builds an
+ * orthonormal basis of up to {@code restart} vectors with modified Gram-Schmidt, and keeps the
+ * least-squares problem triangular with complex Givens rotations, so the residual is known at every
+ * iteration without forming the solution.
+ */
+public class GmresSolver extends KrylovSolver {
+    private final int restart;
+
+    /**
+     * @param restart how many basis vectors to build before starting again from the current solution
+     */
+    public GmresSolver(LinearSolver fallback, Trace trace, double tolerance, int maxIterations,
+                       Preconditioner.Type preconditionerType, int restart) {
+        super(fallback, trace, tolerance, maxIterations, preconditionerType);
+        this.restart = restart;
+    }
+
+    @Override
+    protected void iterate(SparseOperator operator, Preconditioner preconditioner,
+                           double[] constantsReal, double[] constantsImaginary, double constantsNorm,
+                           double[] real, double[] imaginary) {
+        int size = operator.size;
+        int m = Math.min(restart, size);
+        double[][] basisReal = new double[m + 1][size];
+        double[][] basisImaginary = new double[m + 1][size];
+        double[][] hessenbergReal = new double[m + 1][m];
+        double[][] hessenbergImaginary = new double[m + 1][m];
+        double[] cosines = new double[m];
+        double[] sinesReal = new double[m];
+        double[] sinesImaginary = new double[m];
+        double[] gReal = new double[m + 1];
+        double[] gImaginary = new double[m + 1];
+        double[] preconditionedReal = new double[size];
+        double[] preconditionedImaginary = new double[size];
+        double[] scalar = new double[2];
+
+        while (getIterations() < maxIterations) {
+            ComplexVectors.residual(operator, real, imaginary, constantsReal, constantsImaginary,
+                    basisReal[0], basisImaginary[0]);
+            double beta = ComplexVectors.norm(basisReal[0], basisImaginary[0]);
+
+            if (beta / constantsNorm <= tolerance) {
+                return;
+            }
+
+            scale(basisReal[0], basisImaginary[0], 1 / beta);
+            Arrays.fill(gReal, 0);
+            Arrays.fill(gImaginary, 0);
+            gReal[0] = beta;
+            int columns = 0;
+            boolean converged = false;
+
+            for (int j = 0; j < m && getIterations() < maxIterations; j++) {
+                preconditioner.apply(basisReal[j], basisImaginary[j], preconditionedReal, preconditionedImaginary);
+                double[] wReal = basisReal[j + 1];
+                double[] wImaginary = basisImaginary[j + 1];
+                operator.multiply(preconditionedReal, preconditionedImaginary, wReal, wImaginary);
+
+                for (int i = 0; i <= j; i++) {
+                    ComplexVectors.dot(basisReal[i], basisImaginary[i], wReal, wImaginary, scalar);
+                    hessenbergReal[i][j] = scalar[0];
+                    hessenbergImaginary[i][j] = scalar[1];
+                    ComplexVectors.addMultiple(-scalar[0], -scalar[1], basisReal[i], basisImaginary[i],
+                            wReal, wImaginary);
+                }
+
+                double wNorm = ComplexVectors.norm(wReal, wImaginary);
+                hessenbergReal[j + 1][j] = wNorm;
+                hessenbergImaginary[j + 1][j] = 0;
+
+                if (wNorm != 0) {
+                    scale(wReal, wImaginary, 1 / wNorm);
+                }
+
+                applyRotations(hessenbergReal, hessenbergImaginary, cosines, sinesReal, sinesImaginary, j);
+
+                // The new rotation also turns g, whose last element is then the residual
+                double previousReal = gReal[j];
+                double previousImaginary = gImaginary[j];
+                gReal[j] = cosines[j] * previousReal;
+                gImaginary[j] = cosines[j] * previousImaginary;
+                gReal[j + 1] = -(sinesReal[j] * previousReal + sinesImaginary[j] * previousImaginary);
+                gImaginary[j + 1] = -(sinesReal[j] * previousImaginary - sinesImaginary[j] * previousReal);
+                columns = j + 1;
+                converged = record(Math.hypot(gReal[j + 1], gImaginary[j + 1]) / constantsNorm) || wNorm == 0;
+
+                if (converged) {
+                    break;
+                }
+            }
+
+            // Solve the triangular system H y = g and add the preconditioned basis combination to x
+            double[] yReal = new double[columns];
+            double[] yImaginary = new double[columns];
+
+            for (int i = columns - 1; i >= 0; i--) {
+                double sumReal = gReal[i];
+                double sumImaginary = gImaginary[i];
+
+                for (int k = i + 1; k < columns; k++) {
+                    sumReal -= hessenbergReal[i][k] * yReal[k] - hessenbergImaginary[i][k] * yImaginary[k];
+                    sumImaginary -= hessenbergReal[i][k] * yImaginary[k] + hessenbergImaginary[i][k] * yReal[k];
+                }
+
+                ComplexVectors.divide(sumReal, sumImaginary, hessenbergReal[i][i], hessenbergImaginary[i][i], scalar);
+                yReal[i] = scalar[0];
+                yImaginary[i] = scalar[1];
+            }
+
+            double[] updateReal = new double[size];
+            double[] updateImaginary = new double[size];
+
+            for (int i = 0; i < columns; i++) {
+                ComplexVectors.addMultiple(yReal[i], yImaginary[i], basisReal[i], basisImaginary[i],
+                        updateReal, updateImaginary);
+            }
+
+            preconditioner.apply(updateReal, updateImaginary, preconditionedReal, preconditionedImaginary);
+            ComplexVectors.addMultiple(1, 0, preconditionedReal, preconditionedImaginary, real, imaginary);
+
+            if (converged) {
+                return;
+            }
+        }
+    }
+
+    // Rotate column j by the earlier rotations, then make and apply the one that zeroes H(j+1, j)
+    private void applyRotations(double[][] hReal, double[][] hImaginary, double[] cosines, double[] sinesReal,
+                                double[] sinesImaginary, int j) {
+        for (int i = 0; i < j; i++) {
+            rotate(hReal, hImaginary, i, j, cosines[i], sinesReal[i], sinesImaginary[i]);
+        }
+
+        double aReal = hReal[j][j];
+        double aImaginary = hImaginary[j][j];
+        double b = hReal[j + 1][j];
+        double aNorm = Math.hypot(aReal, aImaginary);
+        double norm = Math.hypot(aNorm, b);
+
+        if (aNorm == 0) {
+            cosines[j] = 0;
+            sinesReal[j] = 1;
+            sinesImaginary[j] = 0;
+        } else {
+            // c = |a| / norm, s = (a / |a|) * conj(b) / norm, with b real
+            cosines[j] = aNorm / norm;
+            sinesReal[j] = aReal / aNorm * b / norm;
+            sinesImaginary[j] = aImaginary / aNorm * b / norm;
+        }
+
+        rotate(hReal, hImaginary, j, j, cosines[j], sinesReal[j], sinesImaginary[j]);
+        hReal[j + 1][j] = 0;
+        hImaginary[j + 1][j] = 0;
+    }
+
+    // (x, y) -> (c x + s y, -conj(s) x + c y) on rows i and i + 1 of column j
+    private static void rotate(double[][] hReal, double[][] hImaginary, int i, int j,
+                               double cosine, double sineReal, double sineImaginary) {
+        double xReal = hReal[i][j];
+        double xImaginary = hImaginary[i][j];
+        double yReal = hReal[i + 1][j];
+        double yImaginary = hImaginary[i + 1][j];
+        hReal[i][j] = cosine * xReal + sineReal * yReal - sineImaginary * yImaginary;
+        hImaginary[i][j] = cosine * xImaginary + sineReal * yImaginary + sineImaginary * yReal;
+        hReal[i + 1][j] = -(sineReal * xReal + sineImaginary * xImaginary) + cosine * yReal;
+        hImaginary[i + 1][j] = -(sineReal * xImaginary - sineImaginary * xReal) + cosine * yImaginary;
+    }
+
+    private static void scale(double[] real, double[] imaginary, double factor) {
+        for (int i = 0; i < real.length; i++) {
+            real[i] *= factor;
+            imaginary[i] *= factor;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package solver.main.logic;
+
+import java.util.Arrays;
+
+/**
+ * Incomplete LU with no fill, ILU(0): Gaussian elimination that only keeps the elements where
+ * the coefficients are non-zero, so L and U share the operator's sparsity pattern.
+ */
+class IncompleteLuPreconditioner implements Preconditioner {
+    private final SparseOperator pattern;
+    private final double[] real;
+    private final double[] imaginary;
+    private final int[] diagonal;
+
+    private IncompleteLuPreconditioner(SparseOperator pattern, double[] real, double[] imaginary, int[] diagonal) {
+        this.pattern = pattern;
+        this.real = real;
+        this.imaginary = imaginary;
+        this.diagonal = diagonal;
+    }
+
+    static Preconditioner create(SparseOperator operator) {
+        int size = operator.size;
+        double[] real = operator.real.clone();
+        double[] imaginary = operator.imaginary.clone();
+        int[] diagonal = new int[size];
+        int[] positions = new int[size];
+        Arrays.fill(positions, -1);
+
+        for (int row = 0; row < size; row++) {
+            diagonal[row] = operator.find(row, row);
+
+            if (diagonal[row] < 0) {
+                System.err.println("Zero on the diagonal, not preconditioning");
+                return Preconditioner.none();
+            }
+        }
+
+        for (int row = 1; row < size; row++) {
+            for (int k = operator.rowStart[row]; k < operator.rowStart[row + 1]; k++) {
+                positions[operator.columns[k]] = k;
+            }
+
+            // IKJ order: for each pivot row left of the diagonal, scale and update this row's pattern
+            for (int k = operator.rowStart[row]; k < diagonal[row]; k++) {
+                int pivotRow = operator.columns[k];
+                int pivot = diagonal[pivotRow];
+                double denominator = real[pivot] * real[pivot] + imaginary[pivot] * imaginary[pivot];
+
+                if (denominator == 0) {
+                    System.err.println("Zero pivot in ILU(0), not preconditioning");
+                    return Preconditioner.none();
+                }
+
+                double lowerReal = (real[k] * real[pivot] + imaginary[k] * imaginary[pivot]) / denominator;
+                double lowerImaginary = (imaginary[k] * real[pivot] - real[k] * imaginary[pivot]) / denominator;
+                real[k] = lowerReal;
+                imaginary[k] = lowerImaginary;
+
+                for (int j = pivot + 1; j < operator.rowStart[pivotRow + 1]; j++) {
+                    int target = positions[operator.columns[j]];
+
+                    if (target >= 0) {
+                        real[target] -= lowerReal * real[j] - lowerImaginary * imaginary[j];
+                        imaginary[target] -= lowerReal * imaginary[j] + lowerImaginary * real[j];
+                    }
+                }
+            }
+
+            for (int k = operator.rowStart[row]; k < operator.rowStart[row + 1]; k++) {
+                positions[operator.columns[k]] = -1;
+            }
+        }
+
+        for (int row = 0; row < size; row++) {
+            if (real[diagonal[row]] == 0 && imaginary[diagonal[row]] == 0) {
+                System.err.println("Zero pivot in ILU(0), not preconditioning");
+                return Preconditioner.none();
+            }
+        }
+
+        return new IncompleteLuPreconditioner(operator, real, imaginary, diagonal);
+    }
+
+    @Override
+    public void apply(double[] inReal, double[] inImaginary, double[] outReal, double[] outImaginary) {
+        int size = pattern.size;
+
+        // L has a unit diagonal
+        for (int row = 0; row < size; row++) {
+            double sumReal = inReal[row];
+            double sumImaginary = inImaginary[row];
+
+            for (int k = pattern.rowStart[row]; k < diagonal[row]; k++) {
+                int column = pattern.columns[k];
+                sumReal -= real[k] * outReal[column] - imaginary[k] * outImaginary[column];
+                sumImaginary -= real[k] * outImaginary[column] + imaginary[k] * outReal[column];
+            }
+
+            outReal[row] = sumReal;
+            outImaginary[row] = sumImaginary;
+        }
+
+        for (int row = size - 1; row >= 0; row--) {
+            double sumReal = outReal[row];
+            double sumImaginary = outImaginary[row];
+
+            for (int k = diagonal[row] + 1; k < pattern.rowStart[row + 1]; k++) {
+                int column = pattern.columns[k];
+                sumReal -= real[k] * outReal[column] - imaginary[k] * outImaginary[column];
+                sumImaginary -= real[k] * outImaginary[column] + imaginary[k] * outReal[column];
+            }
+
+            int pivot = diagonal[row];
+            double denominator = real[pivot] * real[pivot] + imaginary[pivot] * imaginary[pivot];
+            outReal[row] = (sumReal * real[pivot] + sumImaginary * imaginary[pivot]) / denominator;
+            outImaginary[row] = (sumImaginary * real[pivot] - sumReal * imaginary[pivot]) / denominator;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package solver.main.logic;
+
+/**
+ * Divides by the diagonal: {@code M = diag(A)}.
+ */
+class JacobiPreconditioner implements Preconditioner {
+    private final double[] inverseReal;
+    private final double[] inverseImaginary;
+
+    private JacobiPreconditioner(double[] inverseReal, double[] inverseImaginary) {
+        this.inverseReal = inverseReal;
+        this.inverseImaginary = inverseImaginary;
+    }
+
+    static Preconditioner create(SparseOperator operator) {
+        double[] inverseReal = new double[operator.size];
+        double[] inverseImaginary = new double[operator.size];
+
+        for (int row = 0; row < operator.size; row++) {
+            int diagonal = operator.find(row, row);
+
+            if (diagonal < 0) {
+                System.err.println("Zero on the diagonal, not preconditioning");
+                return Preconditioner.none();
+            }
+
+            double real = operator.real[diagonal];
+            double imaginary = operator.imaginary[diagonal];
+            double denominator = real * real + imaginary * imaginary;
+            inverseReal[row] = real / denominator;
+            inverseImaginary[row] = -imaginary / denominator;
+        }
+
+        return new JacobiPreconditioner(inverseReal, inverseImaginary);
+    }
+
+    @Override
+    public void apply(double[] inReal, double[] inImaginary, double[] outReal, double[] outImaginary) {
+        for (int i = 0; i < inReal.length; i++) {
+            outReal[i] = inReal[i] * inverseReal[i] - inImaginary[i] * inverseImaginary[i];
+            outImaginary[i] = inReal[i] * inverseImaginary[i] + inImaginary[i] * inverseReal[i];
+        }
+    }
+}
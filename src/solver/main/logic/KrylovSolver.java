@@ -0,0 +1,127 @@
+package solver.main.logic;
+
+import solver.main.control.Executor;
+import solver.main.model.Matrix;
+import solver.main.trace.Trace;
+
+import java.util.Arrays;
+
+/**
+ * The common part of the iterative (Krylov subspace) solvers.  They work on a compressed copy of the
+ * coefficients in complex double arithmetic, and stop when the residual {@code |b - Ax| / |b|} is
+ * within the tolerance or the iteration cap is reached.  Every iteration's residual goes to the
+ * trace and is kept as the convergence history.
+ * <p>
+ * The answer is {@link Executor.SolutionState#SOLUTION} only if the true residual, recomputed at the
+ * end, meets the tolerance; otherwise it is {@link Executor.SolutionState#NOT_CONVERGED} and the matrix
+ * is left as it was.  Non-square systems, and systems whose constants are all zero, are handed to the
+ * fallback solver.
+ * <p>
+ * The coefficients are assumed to be non-singular.  A singular system with a solution may still converge,
+ * to one of its solutions, and is then reported as having exactly that one.
+ */
+public abstract class KrylovSolver implements LinearSolver {
+    private final LinearSolver fallback;
+    private final Preconditioner.Type preconditionerType;
+    protected final Trace trace;
+    protected final double tolerance;
+    protected final int maxIterations;
+    private double[] history = new double[0];
+    private int historyLength = 0;
+
+    /**
+     * @param fallback the solver for non-square systems and zero constants
+     * @param trace where to report each iteration's residual
+     * @param tolerance the relative residual to reach
+     * @param maxIterations the most iterations to try
+     * @param preconditionerType the preconditioner to build from the coefficients
+     */
+    protected KrylovSolver(LinearSolver fallback, Trace trace, double tolerance, int maxIterations,
+                           Preconditioner.Type preconditionerType) {
+        this.fallback = fallback;
+        this.trace = trace;
+        this.tolerance = tolerance;
+        this.maxIterations = maxIterations;
+        this.preconditionerType = preconditionerType;
+    }
+
+    @Override
+    public Executor.SolutionState solve(Matrix matrix, int numberOfVariables) {
+        if (matrix.getSize() != numberOfVariables || matrix.getLineLength() != numberOfVariables + 1) {
+            trace.message("System is not square, using Gauss-Jordan elimination");
+            return fallback.solve(matrix, numberOfVariables);
+        }
+
+        SparseOperator operator = new SparseOperator(matrix, numberOfVariables);
+        double[][] constants = SparseOperator.constants(matrix, numberOfVariables);
+        double[] real = new double[numberOfVariables];
+        double[] imaginary = new double[numberOfVariables];
+        double constantsNorm = ComplexVectors.norm(constants[0], constants[1]);
+        history = new double[Math.min(maxIterations, 1024)];
+        historyLength = 0;
+
+        // x = 0 solves it, but only elimination can tell whether it is the only solution
+        if (constantsNorm == 0) {
+            trace.message("Constants are all zero, using Gauss-Jordan elimination");
+            return fallback.solve(matrix, numberOfVariables);
+        }
+
+        Preconditioner preconditioner = Preconditioner.create(preconditionerType, operator);
+        iterate(operator, preconditioner, constants[0], constants[1], constantsNorm, real, imaginary);
+
+        double[] residualReal = new double[numberOfVariables];
+        double[] residualImaginary = new double[numberOfVariables];
+        ComplexVectors.residual(operator, real, imaginary, constants[0], constants[1],
+                residualReal, residualImaginary);
+        double relativeResidual = ComplexVectors.norm(residualReal, residualImaginary) / constantsNorm;
+
+        if (!(relativeResidual <= tolerance)) {
+            trace.message(String.format("No convergence after %d iterations, relative residual %.3e",
+                    historyLength, relativeResidual));
+            return Executor.SolutionState.NOT_CONVERGED;
+        }
+
+        ReducedForm.store(matrix, real, imaginary);
+
+        return Executor.SolutionState.SOLUTION;
+    }
+
+    /**
+     * Improve the solution until the residual is within the tolerance or the iterations run out.
+     * @param operator the coefficients
+     * @param preconditioner applied to every new search direction
+     * @param constantsReal the real parts of the constants
+     * @param constantsImaginary the imaginary parts of the constants
+     * @param constantsNorm the length of the constants, never zero
+     * @param real on entry the starting guess's real parts, on exit the solution's
+     * @param imaginary the same for the imaginary parts
+     */
+    protected abstract void iterate(SparseOperator operator, Preconditioner preconditioner,
+                                    double[] constantsReal, double[] constantsImaginary, double constantsNorm,
+                                    double[] real, double[] imaginary);
+
+    /**
+     * Report one iteration's residual.
+     * @return {@code true} if it meets the tolerance
+     */
+    protected boolean record(double relativeResidual) {
+        if (historyLength == history.length) {
+            history = Arrays.copyOf(history, Math.max(1, history.length * 2));
+        }
+
+        history[historyLength++] = relativeResidual;
+        trace.iteration(historyLength, relativeResidual);
+
+        return relativeResidual <= tolerance;
+    }
+
+    /** @return the iterations recorded so far */
+    protected int getIterations() {
+        return historyLength;
+    }
+
+    /** @return the relative residual after each iteration of the last solve */
+    public double[] getHistory() {
+        return Arrays.copyOf(history, historyLength);
+    }
+}
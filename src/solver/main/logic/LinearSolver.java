@@ -0,0 +1,12 @@
+package solver.main.logic;
+
+import solver.main.control.Executor;
+import solver.main.model.Matrix;
+
+/**
+ * Solves an augmented matrix in place.  When the state is {@code SOLUTION}, the
+ * value of variable {@code i} is left in the constant column of row {@code i}.
+ */
+public interface LinearSolver {
+    Executor.SolutionState solve(Matrix matrix, int numberOfVariables);
+}
@@ -0,0 +1,284 @@
+package solver.main.logic;
+
+import solver.main.model.Complex;
+import solver.main.model.DoubleMatrix;
+import solver.main.model.Matrix;
+import solver.main.model.RowKernels;
+
+/**
+ * LU factorization with partial (row) pivoting, {@code PA = LU}, in complex double arithmetic.
+ * <p>
+ * The factorization is right-looking and blocked: each panel of {@code blockSize} columns is
+ * factored, the block row to its right is solved against the panel's unit lower triangle, and the
+ * trailing submatrix is then updated tile by tile, so the rows being combined stay in cache.
+ * L (unit diagonal, not stored) and U share one row-major array.
+ */
+public class LuFactorization {
+
+    /** A pivot smaller than this, relative to the largest element, means the matrix is singular */
+    private static final double SINGULAR_TOLERANCE = 1e-12;
+
+    private final int size;
+    private final double[] real;
+    private final double[] imaginary;
+    private final int[] pivots;
+
+    private LuFactorization(int size) {
+        this.size = size;
+        real = new double[size * size];
+        imaginary = new double[size * size];
+        pivots = new int[size];
+    }
+
+    /**
+     * Factor the square coefficient part of an augmented matrix.  The matrix is not changed.
+     * @param matrix the augmented matrix
+     * @param size the number of variables, which must equal the number of equations
+     * @param blockSize the tile edge, in elements
+     * @return the factorization, or {@code null} if the matrix is singular
+     */
+    public static LuFactorization factor(Matrix matrix, int size, int blockSize) {
+        LuFactorization lu = new LuFactorization(size);
+        lu.copyFrom(matrix);
+
+        return lu.decompose(Math.max(1, blockSize)) ? lu : null;
+    }
+
+    private void copyFrom(Matrix matrix) {
+        if (matrix instanceof DoubleMatrix) {
+            DoubleMatrix dense = (DoubleMatrix) matrix;
+
+            for (int row = 0; row < size; row++) {
+                for (int column = 0; column < size; column++) {
+                    real[row * size + column] = dense.getRealPart(row, column);
+                    imaginary[row * size + column] = dense.getImaginaryPart(row, column);
+                }
+            }
+
+            return;
+        }
+
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                Complex coefficient = matrix.getCoefficient(row, column);
+                real[row * size + column] = coefficient.getReal().doubleValue();
+                imaginary[row * size + column] = coefficient.getImaginary().doubleValue();
+            }
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /** @return the row that was interchanged with row {@code k} at step {@code k} */
+    public int getPivot(int k) {
+        return pivots[k];
+    }
+
+    private boolean decompose(int blockSize) {
+        double largest = 0;
+
+        for (int i = 0; i < real.length; i++) {
+            largest = Math.max(largest, real[i] * real[i] + imaginary[i] * imaginary[i]);
+        }
+
+        // compare squared magnitudes, so square the tolerance too
+        double tolerance = largest * SINGULAR_TOLERANCE * SINGULAR_TOLERANCE;
+
+        for (int panelStart = 0; panelStart < size; panelStart += blockSize) {
+            int panelEnd = Math.min(panelStart + blockSize, size);
+
+            if (!factorPanel(panelStart, panelEnd, tolerance)) {
+                return false;
+            }
+
+            solveBlockRow(panelStart, panelEnd);
+            updateTrailingMatrix(panelStart, panelEnd, blockSize);
+        }
+
+        return true;
+    }
+
+    // Unblocked elimination of the panel columns, over every row below the diagonal
+    private boolean factorPanel(int panelStart, int panelEnd, double tolerance) {
+        for (int k = panelStart; k < panelEnd; k++) {
+            int pivot = k;
+            double best = -1;
+
+            for (int row = k; row < size; row++) {
+                int index = row * size + k;
+                double magnitude = real[index] * real[index] + imaginary[index] * imaginary[index];
+
+                if (magnitude > best) {
+                    best = magnitude;
+                    pivot = row;
+                }
+            }
+
+            if (best <= tolerance) {
+                return false;
+            }
+
+            pivots[k] = pivot;
+
+            if (pivot != k) {
+                swapRows(k, pivot);
+            }
+
+            int diagonal = k * size + k;
+            double denominator = real[diagonal] * real[diagonal] + imaginary[diagonal] * imaginary[diagonal];
+            double inverseReal = real[diagonal] / denominator;
+            double inverseImaginary = -imaginary[diagonal] / denominator;
+
+            for (int row = k + 1; row < size; row++) {
+                int index = row * size + k;
+                double lowerReal = real[index] * inverseReal - imaginary[index] * inverseImaginary;
+                double lowerImaginary = real[index] * inverseImaginary + imaginary[index] * inverseReal;
+                real[index] = lowerReal;
+                imaginary[index] = lowerImaginary;
+
+                if (lowerReal != 0 || lowerImaginary != 0) {
+                    subtractMultiple(row, k, lowerReal, lowerImaginary, k + 1, panelEnd);
+                }
+            }
+        }
+
+        return true;
+    }
+
+    // U12 = inverse(L11) * A12, the block row right of the panel
+    private void solveBlockRow(int panelStart, int panelEnd) {
+        for (int k = panelStart; k < panelEnd; k++) {
+            for (int row = k + 1; row < panelEnd; row++) {
+                int index = row * size + k;
+
+                if (real[index] != 0 || imaginary[index] != 0) {
+                    subtractMultiple(row, k, real[index], imaginary[index], panelEnd, size);
+                }
+            }
+        }
+    }
+
+    // A22 -= L21 * U12, one tile at a time
+    private void updateTrailingMatrix(int panelStart, int panelEnd, int blockSize) {
+        for (int rowTile = panelEnd; rowTile < size; rowTile += blockSize) {
+            int rowTileEnd = Math.min(rowTile + blockSize, size);
+
+            for (int columnTile = panelEnd; columnTile < size; columnTile += blockSize) {
+                int columnTileEnd = Math.min(columnTile + blockSize, size);
+
+                for (int row = rowTile; row < rowTileEnd; row++) {
+                    for (int k = panelStart; k < panelEnd; k++) {
+                        int index = row * size + k;
+
+                        if (real[index] != 0 || imaginary[index] != 0) {
+                            subtractMultiple(row, k, real[index], imaginary[index], columnTile, columnTileEnd);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // row[from, to) -= multiplier * sourceRow[from, to), as adding the negated multiplier, which rounds the same
+    private void subtractMultiple(int row, int sourceRow, double multiplierReal, double multiplierImaginary,
+                                  int from, int to) {
+        RowKernels.complexAxpy(-multiplierReal, -multiplierImaginary, real, imaginary, sourceRow * size + from,
+                real, imaginary, row * size + from, to - from);
+    }
+
+    private void swapRows(int first, int second) {
+        for (int column = 0; column < size; column++) {
+            int a = first * size + column;
+            int b = second * size + column;
+            double temp = real[a];
+            real[a] = real[b];
+            real[b] = temp;
+            temp = imaginary[a];
+            imaginary[a] = imaginary[b];
+            imaginary[b] = temp;
+        }
+    }
+
+    /**
+     * Solve {@code AX = B} in place, where B is every column of {@code matrix} from
+     * {@code firstColumn} on.  Each column costs O(n<sup>2</sup>); the factorization is reused.
+     * @param matrix holds B in rows {@code 0..size-1}; the columns are replaced by X
+     * @param firstColumn the first column of B
+     */
+    public void solve(Matrix matrix, int firstColumn) {
+        double[] bReal = new double[size];
+        double[] bImaginary = new double[size];
+        DoubleMatrix dense = matrix instanceof DoubleMatrix ? (DoubleMatrix) matrix : null;
+
+        for (int column = firstColumn; column < matrix.getLineLength(); column++) {
+            for (int row = 0; row < size; row++) {
+                if (dense != null) {
+                    bReal[row] = dense.getRealPart(row, column);
+                    bImaginary[row] = dense.getImaginaryPart(row, column);
+                } else {
+                    Complex constant = matrix.getCoefficient(row, column);
+                    bReal[row] = constant.getReal().doubleValue();
+                    bImaginary[row] = constant.getImaginary().doubleValue();
+                }
+            }
+
+            solve(bReal, bImaginary);
+
+            for (int row = 0; row < size; row++) {
+                if (dense != null) {
+                    dense.setCoefficient(row, column, bReal[row], bImaginary[row]);
+                } else {
+                    matrix.setCoefficient(row, column, new Complex(bReal[row], bImaginary[row]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Solve {@code Ax = b} in place: permute, forward substitute through L, back substitute through U.
+     * @param bReal real parts of the right-hand side, replaced by the solution
+     * @param bImaginary imaginary parts of the right-hand side, replaced by the solution
+     */
+    public void solve(double[] bReal, double[] bImaginary) {
+        for (int k = 0; k < size; k++) {
+            int pivot = pivots[k];
+
+            if (pivot != k) {
+                double temp = bReal[k];
+                bReal[k] = bReal[pivot];
+                bReal[pivot] = temp;
+                temp = bImaginary[k];
+                bImaginary[k] = bImaginary[pivot];
+                bImaginary[pivot] = temp;
+            }
+        }
+
+        double[] sum = new double[2];
+
+        // forward substitution, L has a unit diagonal
+        for (int row = 0; row < size; row++) {
+            sum[0] = bReal[row];
+            sum[1] = bImaginary[row];
+            RowKernels.subtractDot(real, imaginary, row * size, bReal, bImaginary, 0, row, sum);
+            bReal[row] = sum[0];
+            bImaginary[row] = sum[1];
+        }
+
+        // back substitution through U
+        for (int row = size - 1; row >= 0; row--) {
+            sum[0] = bReal[row];
+            sum[1] = bImaginary[row];
+            RowKernels.subtractDot(real, imaginary, row * size + row + 1, bReal, bImaginary, row + 1,
+                    size - row - 1, sum);
+            double sumReal = sum[0];
+            double sumImaginary = sum[1];
+
+            int diagonal = row * size + row;
+            double denominator = real[diagonal] * real[diagonal] + imaginary[diagonal] * imaginary[diagonal];
+            bReal[row] = (sumReal * real[diagonal] + sumImaginary * imaginary[diagonal]) / denominator;
+            bImaginary[row] = (sumImaginary * real[diagonal] - sumReal * imaginary[diagonal]) / denominator;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package solver.main.logic;
+
+import solver.main.control.Executor;
+import solver.main.model.Complex;
+import solver.main.model.Matrix;
+import solver.main.trace.Trace;
+
+/**
+ * Solves square, non-singular systems with a blocked {@link LuFactorization} followed by
+ * forward and back substitution.  Anything else (non-square or singular) is handed to
+ * Gauss-Jordan elimination, which works out whether there are no or infinitely many solutions.
+ */
+public class LuSolver implements LinearSolver {
+    private final int blockSize;
+    private final LinearSolver fallback;
+    private final Trace trace;
+
+    /**
+     * @param blockSize the tile edge used by the factorization
+     * @param fallback the solver for non-square or singular systems
+     * @param trace where to report row interchanges
+     */
+    public LuSolver(int blockSize, LinearSolver fallback, Trace trace) {
+        this.blockSize = blockSize;
+        this.fallback = fallback;
+        this.trace = trace;
+    }
+
+    @Override
+    public Executor.SolutionState solve(Matrix matrix, int numberOfVariables) {
+        if (matrix.getSize() != numberOfVariables || matrix.getLineLength() != numberOfVariables + 1) {
+            trace.message("System is not square, using Gauss-Jordan elimination");
+            return fallback.solve(matrix, numberOfVariables);
+        }
+
+        LuFactorization lu = LuFactorization.factor(matrix, numberOfVariables, blockSize);
+
+        if (lu == null) {
+            trace.message("Matrix is singular, using Gauss-Jordan elimination");
+            return fallback.solve(matrix, numberOfVariables);
+        }
+
+        for (int k = 0; k < numberOfVariables; k++) {
+            if (lu.getPivot(k) != k) {
+                trace.swapRows(k, lu.getPivot(k));
+            }
+        }
+
+        double[] real = new double[numberOfVariables];
+        double[] imaginary = new double[numberOfVariables];
+
+        for (int row = 0; row < numberOfVariables; row++) {
+            Complex constant = matrix.getCoefficient(row, numberOfVariables);
+            real[row] = constant.getReal().doubleValue();
+            imaginary[row] = constant.getImaginary().doubleValue();
+        }
+
+        lu.solve(real, imaginary);
+        ReducedForm.store(matrix, real, imaginary);
+
+        return Executor.SolutionState.SOLUTION;
+    }
+}
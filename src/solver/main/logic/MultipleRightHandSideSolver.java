@@ -0,0 +1,114 @@
+package solver.main.logic;
+
+import solver.main.control.Executor;
+import solver.main.model.Matrix;
+import solver.main.model.MatrixRow;
+import solver.main.model.Precision;
+import solver.main.model.RowListMatrix;
+import solver.main.trace.Trace;
+
+/**
+ * Solves {@code AX = B} where the last {@code rightHandSides} columns of the matrix are B.
+ * The coefficients are reduced once and every column of B goes along: in {@code double} they are
+ * factored with {@link LuFactorization} and each column of B solved against it, O(n<sup>2</sup>) each;
+ * in the more precise tiers Gauss-Jordan eliminates the whole of {@code [A|B]} in the matrix's own
+ * arithmetic.  On success column {@code numberOfVariables + j}, rows {@code 0..n-1}, holds the solution
+ * for right-hand side {@code j}.
+ * <p>
+ * A non-square or singular system is solved one right-hand side at a time by the fallback solver.
+ * The state returned is then the worst one: no solution beats infinitely many, which beats a solution.
+ */
+public class MultipleRightHandSideSolver {
+    private final int blockSize;
+    private final Precision precision;
+    private final LinearSolver gaussJordan;
+    private final LinearSolver fallback;
+    private final Trace trace;
+
+    /**
+     * @param blockSize the tile edge used by the LU factorization
+     * @param precision the arithmetic the matrix is kept in; only {@code double} is factored by LU
+     * @param gaussJordan the solver that eliminates {@code [A|B]} in the other tiers
+     * @param fallback the solver for each right-hand side of a non-square or singular system
+     * @param trace where to report how the system is solved
+     */
+    public MultipleRightHandSideSolver(int blockSize, Precision precision, LinearSolver gaussJordan,
+                                       LinearSolver fallback, Trace trace) {
+        this.blockSize = blockSize;
+        this.precision = precision;
+        this.gaussJordan = gaussJordan;
+        this.fallback = fallback;
+        this.trace = trace;
+    }
+
+    public Executor.SolutionState solve(Matrix matrix, int numberOfVariables, int rightHandSides) {
+        if (matrix.getSize() == numberOfVariables
+                && matrix.getLineLength() == numberOfVariables + rightHandSides) {
+            if (precision != Precision.DOUBLE) {
+                trace.message("Eliminating every right-hand side at once");
+
+                if (gaussJordan.solve(matrix, numberOfVariables) == Executor.SolutionState.SOLUTION) {
+                    return Executor.SolutionState.SOLUTION;
+                }
+
+                // Every row operation was applied to all of B, so each column still makes an equivalent system
+                trace.message("Matrix is singular, solving each right-hand side separately");
+
+                return solveSeparately(matrix, numberOfVariables, rightHandSides);
+            }
+
+            LuFactorization lu = LuFactorization.factor(matrix, numberOfVariables, blockSize);
+
+            if (lu != null) {
+                trace.message("Factored once, solving every right-hand side against it");
+                lu.solve(matrix, numberOfVariables);
+
+                return Executor.SolutionState.SOLUTION;
+            }
+
+            trace.message("Matrix is singular, solving each right-hand side separately");
+        } else {
+            trace.message("System is not square, solving each right-hand side separately");
+        }
+
+        return solveSeparately(matrix, numberOfVariables, rightHandSides);
+    }
+
+    private Executor.SolutionState solveSeparately(Matrix matrix, int numberOfVariables, int rightHandSides) {
+        Executor.SolutionState worst = Executor.SolutionState.SOLUTION;
+
+        for (int j = 0; j < rightHandSides; j++) {
+            int constantColumn = numberOfVariables + j;
+            Matrix single = extractSystem(matrix, numberOfVariables, constantColumn);
+            Executor.SolutionState state = fallback.solve(single, numberOfVariables);
+
+            if (state == Executor.SolutionState.SOLUTION) {
+                for (int row = 0; row < numberOfVariables; row++) {
+                    matrix.setCoefficient(row, constantColumn, single.getCoefficient(row, numberOfVariables));
+                }
+            } else if (worst != Executor.SolutionState.NO_SOLUTION) {
+                worst = state;
+            }
+        }
+
+        return worst;
+    }
+
+    // The coefficients plus one constant column, as an ordinary augmented matrix
+    private Matrix extractSystem(Matrix matrix, int numberOfVariables, int constantColumn) {
+        Matrix single = new RowListMatrix();
+
+        for (int row = 0; row < matrix.getSize(); row++) {
+            MatrixRow matrixRow = new MatrixRow();
+
+            for (int column = 0; column < numberOfVariables; column++) {
+                matrixRow.add(matrix.getCoefficient(row, column));
+            }
+
+            matrixRow.add(matrix.getCoefficient(row, constantColumn));
+            single.add(matrixRow);
+        }
+
+        return single;
+    }
+}
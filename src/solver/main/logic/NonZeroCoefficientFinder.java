@@ -4,45 +4,39 @@ import solver.main.model.Matrix;
 import solver.main.model.Swap;
 
 public class NonZeroCoefficientFinder {
-    public Swap findNonZeroCoefficient(Matrix matrix, int rowTarget, int colTarget) {
-        int startingRow = rowTarget;
-        int startingCol = colTarget;
-        int constantColumn = matrix.getLineLength() - 1;
-
-        // check max rows and max columns, but not constant column (last)
-        while (startingRow < matrix.getSize() && startingCol < constantColumn) {
-            int row = startingRow;
-            int col = startingCol;
-
-            // Search down from this starting row/col
-            while (row < matrix.getSize() && matrix.getCoefficient(row, col).isZero()) {
-                row++;
-            }
 
-            // Found non-zero coefficient while searching down the row
-            if (row < matrix.getSize()) {
-                return new Swap(row, col, rowTarget, colTarget);
+    /**
+     * Look down a column for a row to swap into the pivot position.
+     * @return a swap of the target row with the first row below it whose coefficient in the column isn't
+     * zero, or an empty swap if there is none, when the column has no pivot
+     */
+    public Swap findNonZeroCoefficient(Matrix matrix, int rowTarget, int colTarget) {
+        for (int row = rowTarget + 1; row < matrix.getSize(); row++) {
+            if (!matrix.isZero(row, colTarget)) {
+                return new Swap(row, colTarget, rowTarget, colTarget);
             }
+        }
 
-            // Search to the right
-            row = startingRow;
-            col++;
-
-            while (col < constantColumn && matrix.getCoefficient(row, col).isZero()) {
-                col++;
-            }
+        // Signal that you can't swap
+        return Swap.empty();
+    }
 
-            // Found non-zero coefficient while searching to the right
-            if (col < constantColumn) {
-                return new Swap(row, col, rowTarget, colTarget);
+    /**
+     * Look right of a column, at the target row and below, for a column to swap into the pivot position,
+     * when the column itself has no pivot.
+     * @param numberOfVariables the number of coefficient columns; the constants are never swapped
+     * @return a swap of the target column with the first column right of it that has a coefficient that isn't
+     * zero, and of the target row with the first row holding one, or an empty swap if all of them are zero
+     */
+    public Swap findNonZeroColumn(Matrix matrix, int rowTarget, int colTarget, int numberOfVariables) {
+        for (int column = colTarget + 1; column < numberOfVariables; column++) {
+            for (int row = rowTarget; row < matrix.getSize(); row++) {
+                if (!matrix.isZero(row, column)) {
+                    return new Swap(row, column, rowTarget, colTarget);
+                }
             }
-
-            // Neither searching down nor to the right found a non-zero coefficient
-            startingRow++;
-            startingCol++;
         }
 
-        // Signal that you can't swap
         return Swap.empty();
     }
 }
@@ -0,0 +1,84 @@
+package solver.main.logic;
+
+import solver.main.model.Complex;
+import solver.main.model.Matrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Every solution of a system with free variables: {@code x = particular + t1 * v1 + t2 * v2 + ...} for
+ * any numbers {@code t}, where the {@code v}s are a basis of the null space, one per free variable.
+ * It is read from the reduced row echelon form {@link EquationSolver} leaves such a system in.
+ */
+public class ParametricSolution {
+    private final Complex[] particular;
+    private final List<Complex[]> basis;
+
+    private ParametricSolution(Complex[] particular, List<Complex[]> basis) {
+        this.particular = particular;
+        this.basis = basis;
+    }
+
+    /**
+     * @param matrix an augmented matrix of one right-hand side, in reduced row echelon form
+     * @param numberOfVariables the number of coefficient columns
+     */
+    public static ParametricSolution fromReducedForm(Matrix matrix, int numberOfVariables) {
+        int constantColumn = matrix.getLineLength() - 1;
+        int[] pivotColumns = new int[Math.min(matrix.getSize(), numberOfVariables)];
+        boolean[] isPivot = new boolean[numberOfVariables];
+        int rank = 0;
+
+        // The pivot rows come first, each starting with a one; the rest are zero
+        while (rank < pivotColumns.length) {
+            int column = matrix.nextNonZeroColumn(rank, 0);
+
+            if (column >= numberOfVariables) {
+                break;
+            }
+
+            pivotColumns[rank++] = column;
+            isPivot[column] = true;
+        }
+
+        // The free variables are zero in the particular solution, which leaves each pivot variable its constant
+        Complex[] particular = new Complex[numberOfVariables];
+        Arrays.fill(particular, Complex.ZERO);
+
+        for (int row = 0; row < rank; row++) {
+            particular[pivotColumns[row]] = matrix.getCoefficient(row, constantColumn);
+        }
+
+        // Setting one free variable to one and the others to zero gives one vector of the basis
+        List<Complex[]> basis = new ArrayList<>();
+
+        for (int free = 0; free < numberOfVariables; free++) {
+            if (isPivot[free]) {
+                continue;
+            }
+
+            Complex[] vector = new Complex[numberOfVariables];
+            Arrays.fill(vector, Complex.ZERO);
+            vector[free] = Complex.ONE;
+
+            for (int row = 0; row < rank; row++) {
+                vector[pivotColumns[row]] = matrix.getCoefficient(row, free).negate();
+            }
+
+            basis.add(vector);
+        }
+
+        return new ParametricSolution(particular, basis);
+    }
+
+    public Complex[] getParticular() {
+        return particular;
+    }
+
+    /** @return the basis of the null space, one vector per free variable */
+    public List<Complex[]> getBasis() {
+        return basis;
+    }
+}
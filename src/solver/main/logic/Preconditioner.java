@@ -0,0 +1,36 @@
+package solver.main.logic;
+
+/**
+ * An approximate inverse of the coefficients, {@code M}<sup>-1</sup>, that the iterative solvers apply
+ * to each new vector so they converge in fewer iterations.
+ */
+public interface Preconditioner {
+
+    /** Which preconditioner to build */
+    enum Type { NONE, JACOBI, ILU0 }
+
+    /** out = M<sup>-1</sup> in; {@code in} and {@code out} are different arrays */
+    void apply(double[] inReal, double[] inImaginary, double[] outReal, double[] outImaginary);
+
+    /**
+     * @return the preconditioner for the operator, or none if the operator doesn't allow it (a zero
+     * on the diagonal)
+     */
+    static Preconditioner create(Type type, SparseOperator operator) {
+        switch (type) {
+            case JACOBI:
+                return JacobiPreconditioner.create(operator);
+            case ILU0:
+                return IncompleteLuPreconditioner.create(operator);
+            default:
+                return none();
+        }
+    }
+
+    static Preconditioner none() {
+        return (inReal, inImaginary, outReal, outImaginary) -> {
+            System.arraycopy(inReal, 0, outReal, 0, inReal.length);
+            System.arraycopy(inImaginary, 0, outImaginary, 0, inImaginary.length);
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package solver.main.logic;
+
+import solver.main.model.Complex;
+import solver.main.model.DoubleMatrix;
+import solver.main.model.Matrix;
+import solver.main.model.SparseMatrix;
+
+/**
+ * Leaves a square augmented matrix as Gauss-Jordan would: identity on the left and the solution in
+ * the constant column.  Used by the solvers that don't reduce the matrix themselves.
+ */
+final class ReducedForm {
+
+    private ReducedForm() {
+    }
+
+    /** Store a solution kept in {@code BigDecimal}s, which storage that holds {@code double}s rounds */
+    static void store(Matrix matrix, Complex[] solution) {
+        int size = solution.length;
+
+        for (int row = 0; row < size; row++) {
+            if (matrix instanceof SparseMatrix) {
+                ((SparseMatrix) matrix).clearRow(row);
+                matrix.setCoefficient(row, row, Complex.ONE);
+            } else {
+                for (int column = 0; column < size; column++) {
+                    matrix.setCoefficient(row, column, row == column ? Complex.ONE : Complex.ZERO);
+                }
+            }
+
+            matrix.setCoefficient(row, size, solution[row]);
+        }
+    }
+
+    static void store(Matrix matrix, double[] real, double[] imaginary) {
+        int size = real.length;
+
+        for (int row = 0; row < size; row++) {
+            if (matrix instanceof SparseMatrix) {
+                SparseMatrix sparse = (SparseMatrix) matrix;
+                sparse.clearRow(row);
+                sparse.setCoefficient(row, row, 1, 0);
+                sparse.setCoefficient(row, size, real[row], imaginary[row]);
+                continue;
+            }
+
+            for (int column = 0; column < size; column++) {
+                if (matrix instanceof DoubleMatrix) {
+                    ((DoubleMatrix) matrix).setCoefficient(row, column, row == column ? 1 : 0, 0);
+                } else {
+                    matrix.setCoefficient(row, column, row == column ? Complex.ONE : Complex.ZERO);
+                }
+            }
+
+            if (matrix instanceof DoubleMatrix) {
+                ((DoubleMatrix) matrix).setCoefficient(row, size, real[row], imaginary[row]);
+            } else {
+                matrix.setCoefficient(row, size, new Complex(real[row], imaginary[row]));
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package solver.main.logic;
+
+import solver.main.control.Executor;
+import solver.main.model.Complex;
+import solver.main.model.Matrix;
+import solver.main.model.MutableComplex;
+import solver.main.trace.Trace;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Mixed-precision iterative refinement.  The coefficients are factored once, in complex double
+ * arithmetic, by {@link LuFactorization}; the solution is then kept in {@code BigDecimal}s, and each
+ * step works out the residual {@code b - Ax} exactly from the original matrix and solves for the
+ * correction with the same factorization.  Every step gains the digits the factorization is good for,
+ * so a few O(n<sup>2</sup>) steps reach the precision of {@link Complex#getMathContext()} without any
+ * O(n<sup>3</sup>) work in {@code BigDecimal}.
+ * <p>
+ * Refinement stops once the correction is too small to change the solution at that precision.  If a
+ * correction fails to halve the one before, the matrix is too badly conditioned for the factorization
+ * to help, and the system goes to the fallback solver, as do non-square and singular systems.
+ */
+public class RefinementSolver implements LinearSolver {
+    private final int blockSize;
+    private final LinearSolver fallback;
+    private final Trace trace;
+    private final int maxSteps;
+
+    /**
+     * @param blockSize the tile edge used by the factorization
+     * @param fallback the solver for non-square or singular systems, and when refinement stalls
+     * @param trace where to report each correction
+     * @param maxSteps the most refinement steps to take
+     */
+    public RefinementSolver(int blockSize, LinearSolver fallback, Trace trace, int maxSteps) {
+        this.blockSize = blockSize;
+        this.fallback = fallback;
+        this.trace = trace;
+        this.maxSteps = maxSteps;
+    }
+
+    @Override
+    public Executor.SolutionState solve(Matrix matrix, int numberOfVariables) {
+        if (matrix.getSize() != numberOfVariables || matrix.getLineLength() != numberOfVariables + 1) {
+            trace.message("System is not square, using Gauss-Jordan elimination");
+            return fallback.solve(matrix, numberOfVariables);
+        }
+
+        LuFactorization lu = LuFactorization.factor(matrix, numberOfVariables, blockSize);
+
+        if (lu == null) {
+            trace.message("Matrix is singular, using Gauss-Jordan elimination");
+            return fallback.solve(matrix, numberOfVariables);
+        }
+
+        Complex[] solution = refine(matrix, numberOfVariables, lu);
+
+        if (solution == null) {
+            trace.message("Refinement stalled, using Gauss-Jordan elimination");
+            return fallback.solve(matrix, numberOfVariables);
+        }
+
+        ReducedForm.store(matrix, solution);
+
+        return Executor.SolutionState.SOLUTION;
+    }
+
+    /** @return the refined solution, or {@code null} if refinement stalled */
+    private Complex[] refine(Matrix matrix, int size, LuFactorization lu) {
+        Complex[] solution = new Complex[size];
+        double[] real = new double[size];
+        double[] imaginary = new double[size];
+        MutableComplex sum = new MutableComplex();
+        int digits = Complex.getMathContext().getPrecision();
+        double smallEnough = Math.pow(10, 1 - digits);
+        double previousCorrection = Double.POSITIVE_INFINITY;
+        Arrays.fill(solution, Complex.ZERO);
+
+        // The first step starts from zero, so its residual is b and its correction the plain double solution
+        for (int step = 0; step <= maxSteps; step++) {
+            residual(matrix, size, solution, real, imaginary);
+            lu.solve(real, imaginary);
+            double correction = 0;
+            double largest = 0;
+
+            for (int row = 0; row < size; row++) {
+                if (!Double.isFinite(real[row]) || !Double.isFinite(imaginary[row])) {
+                    return null;
+                }
+
+                Complex delta = new Complex(new BigDecimal(real[row]), new BigDecimal(imaginary[row]));
+                solution[row] = sum.set(solution[row]).fma(delta, Complex.ONE).toComplex();
+                correction = Math.max(correction, Math.max(Math.abs(real[row]), Math.abs(imaginary[row])));
+                largest = Math.max(largest, Math.max(Math.abs(solution[row].getReal().doubleValue()),
+                        Math.abs(solution[row].getImaginary().doubleValue())));
+            }
+
+            trace.message(String.format("Refinement step %d, correction %.3e", step, correction));
+
+            if (correction <= largest * smallEnough) {
+                return solution;
+            }
+
+            if (correction > previousCorrection / 2) {
+                return null;
+            }
+
+            previousCorrection = correction;
+        }
+
+        return null;
+    }
+
+    /**
+     * {@code b - Ax}, worked out exactly in {@code BigDecimal} from the original coefficients and only
+     * then rounded to {@code double}, so it holds the digits the solution is still missing.
+     */
+    private static void residual(Matrix matrix, int size, Complex[] solution, double[] real, double[] imaginary) {
+        for (int row = 0; row < size; row++) {
+            Complex constant = matrix.getCoefficient(row, size);
+            BigDecimal residualReal = constant.getReal();
+            BigDecimal residualImaginary = constant.getImaginary();
+
+            for (int column = 0; column < size; column++) {
+                Complex coefficient = matrix.getCoefficient(row, column);
+                Complex value = solution[column];
+
+                if (isExactlyZero(coefficient) || isExactlyZero(value)) {
+                    continue;
+                }
+
+                residualReal = residualReal.subtract(coefficient.getReal().multiply(value.getReal()))
+                        .add(coefficient.getImaginary().multiply(value.getImaginary()));
+                residualImaginary = residualImaginary.subtract(coefficient.getReal().multiply(value.getImaginary()))
+                        .subtract(coefficient.getImaginary().multiply(value.getReal()));
+            }
+
+            real[row] = residualReal.doubleValue();
+            imaginary[row] = residualImaginary.doubleValue();
+        }
+    }
+
+    // Not within the zero tolerance, which would drop the small parts the residual is made of
+    private static boolean isExactlyZero(Complex value) {
+        return value.getReal().signum() == 0 && value.getImaginary().signum() == 0;
+    }
+}
@@ -0,0 +1,196 @@
+package solver.main.logic;
+
+import solver.main.control.Executor;
+import solver.main.model.Complex;
+import solver.main.model.DoubleMatrix;
+import solver.main.model.Matrix;
+
+import java.util.stream.IntStream;
+
+/**
+ * Checks a solution against the equations it came from.  The solvers reduce the matrix in place, so
+ * the coefficients and constants are copied, as {@code double}s, before solving.  Afterwards
+ * {@code b - Ax} is worked out for every row in parallel, each dot product with compensated summation
+ * (the rounding error of every product and every sum is carried along and added back at the end), so
+ * the residual is accurate to about twice {@code double} precision rather than lost in rounding.
+ * <p>
+ * The relative residual is the normwise backward error {@code |b - Ax| / (|A| |x| + |b|)}, in the
+ * infinity norm: around 1e-16 means the solution is as good as {@code double} arithmetic allows, and
+ * anything much larger means it should not be trusted.
+ */
+public class ResidualVerifier {
+    private final int size;
+    private final int numberOfVariables;
+    private final int rightHandSides;
+    private final int lineLength;
+    private final double[] real;
+    private final double[] imaginary;
+    private final double coefficientNorm;
+
+    /**
+     * Copy the original system.
+     * @param original the augmented matrix, before it is solved
+     * @param numberOfVariables the number of coefficient columns
+     * @param rightHandSides the number of constant columns
+     */
+    public ResidualVerifier(Matrix original, int numberOfVariables, int rightHandSides) {
+        size = original.getSize();
+        this.numberOfVariables = numberOfVariables;
+        this.rightHandSides = rightHandSides;
+        lineLength = numberOfVariables + rightHandSides;
+        real = new double[size * lineLength];
+        imaginary = new double[size * lineLength];
+        double largestRowSum = 0;
+
+        for (int row = 0; row < size; row++) {
+            double rowSum = 0;
+
+            for (int column = 0; column < lineLength; column++) {
+                int index = row * lineLength + column;
+
+                if (original instanceof DoubleMatrix) {
+                    real[index] = ((DoubleMatrix) original).getRealPart(row, column);
+                    imaginary[index] = ((DoubleMatrix) original).getImaginaryPart(row, column);
+                } else {
+                    Complex coefficient = original.getCoefficient(row, column);
+                    real[index] = coefficient.getReal().doubleValue();
+                    imaginary[index] = coefficient.getImaginary().doubleValue();
+                }
+
+                if (column < numberOfVariables) {
+                    rowSum += Math.hypot(real[index], imaginary[index]);
+                }
+            }
+
+            largestRowSum = Math.max(largestRowSum, rowSum);
+        }
+
+        coefficientNorm = largestRowSum;
+    }
+
+    /**
+     * Check the solution the solver left in the matrix: every right-hand side's values for a solution, or
+     * the particular solution when there are infinitely many and one right-hand side.
+     * @return the residuals, or {@code null} when the state has no values to check
+     */
+    public Residuals verify(Matrix solved, Executor.SolutionState state) {
+        double[][] solutionReal = new double[rightHandSides][numberOfVariables];
+        double[][] solutionImaginary = new double[rightHandSides][numberOfVariables];
+
+        if (state == Executor.SolutionState.SOLUTION) {
+            for (int k = 0; k < rightHandSides; k++) {
+                for (int row = 0; row < numberOfVariables; row++) {
+                    Complex value = solved.getCoefficient(row, numberOfVariables + k);
+                    solutionReal[k][row] = value.getReal().doubleValue();
+                    solutionImaginary[k][row] = value.getImaginary().doubleValue();
+                }
+            }
+        } else if (state == Executor.SolutionState.INFINITE_SOLUTIONS && rightHandSides == 1) {
+            Complex[] particular = ParametricSolution.fromReducedForm(solved, numberOfVariables).getParticular();
+
+            for (int row = 0; row < numberOfVariables; row++) {
+                solutionReal[0][row] = particular[row].getReal().doubleValue();
+                solutionImaginary[0][row] = particular[row].getImaginary().doubleValue();
+            }
+        } else {
+            return null;
+        }
+
+        double max = 0;
+        double relative = 0;
+
+        for (int k = 0; k < rightHandSides; k++) {
+            double[] residuals = residuals(solutionReal[k], solutionImaginary[k], k);
+            double residualNorm = 0;
+            double constantNorm = 0;
+            double solutionNorm = 0;
+
+            for (int row = 0; row < size; row++) {
+                int index = row * lineLength + numberOfVariables + k;
+                residualNorm = Math.max(residualNorm, residuals[row]);
+                constantNorm = Math.max(constantNorm, Math.hypot(real[index], imaginary[index]));
+            }
+
+            for (int row = 0; row < numberOfVariables; row++) {
+                solutionNorm = Math.max(solutionNorm, Math.hypot(solutionReal[k][row], solutionImaginary[k][row]));
+            }
+
+            double scale = coefficientNorm * solutionNorm + constantNorm;
+            max = Math.max(max, residualNorm);
+            relative = Math.max(relative, scale == 0 ? residualNorm : residualNorm / scale);
+        }
+
+        return new Residuals(max, relative);
+    }
+
+    // The rows are independent, so each is summed on whichever thread gets it, the same way every time
+    private double[] residuals(double[] xReal, double[] xImaginary, int rightHandSide) {
+        double[] residuals = new double[size];
+
+        IntStream.range(0, size).parallel().forEach(row -> {
+            int start = row * lineLength;
+            int constant = start + numberOfVariables + rightHandSide;
+            CompensatedSum sumReal = new CompensatedSum(-real[constant]);
+            CompensatedSum sumImaginary = new CompensatedSum(-imaginary[constant]);
+
+            for (int column = 0; column < numberOfVariables; column++) {
+                double aReal = real[start + column];
+                double aImaginary = imaginary[start + column];
+                sumReal.addProduct(aReal, xReal[column]);
+                sumReal.addProduct(-aImaginary, xImaginary[column]);
+                sumImaginary.addProduct(aReal, xImaginary[column]);
+                sumImaginary.addProduct(aImaginary, xReal[column]);
+            }
+
+            residuals[row] = Math.hypot(sumReal.value(), sumImaginary.value());
+        });
+
+        return residuals;
+    }
+
+    /**
+     * A sum of products that keeps the rounding error of each: the product's from a fused multiply-add,
+     * the sum's from Knuth's two-sum.
+     */
+    private static class CompensatedSum {
+        private double sum;
+        private double error = 0;
+
+        private CompensatedSum(double start) {
+            sum = start;
+        }
+
+        private void addProduct(double a, double b) {
+            double product = a * b;
+            double productError = Math.fma(a, b, -product);
+            double newSum = sum + product;
+            double virtual = newSum - sum;
+            double sumError = (sum - (newSum - virtual)) + (product - virtual);
+            sum = newSum;
+            error += productError + sumError;
+        }
+
+        private double value() {
+            return sum + error;
+        }
+    }
+
+    /** The largest residual over the rows and right-hand sides, and the largest relative residual */
+    public static class Residuals {
+        private final double max;
+        private final double relative;
+
+        private Residuals(double max, double relative) {
+            this.max = max;
+            this.relative = relative;
+        }
+
+        public double getMax() {
+            return max;
+        }
+
+        public double getRelative() {
+            return relative;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package solver.main.logic;
+
+import solver.main.model.Complex;
+import solver.main.model.Matrix;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Applies the row operations for one pivot: every target row gets the source row times its own
+ * multiplier added to it.  The target rows are independent of each other, so above a size
+ * threshold they are split across a {@link ForkJoinPool}.  Each row is updated by exactly the same
+ * operations in the same order either way, so the result is bit-identical to the sequential path.
+ */
+public class RowEliminator {
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /** Sequential eliminator */
+    public RowEliminator() {
+        this(1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param parallelism the number of worker threads; 1 means always sequential
+     * @param threshold the fewest target rows for which work is split across threads
+     */
+    public RowEliminator(int parallelism, int threshold) {
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        this.threshold = Math.max(1, threshold);
+    }
+
+    /**
+     * Add {@code multipliers[i]} times the source row to row {@code targets[i]}, for each
+     * {@code i < count}, starting at {@code startColumn}.
+     */
+    public void apply(Matrix matrix, int sourceRow, int[] targets, Complex[] multipliers, int count,
+                      int startColumn) {
+        if (pool == null || count < threshold) {
+            for (int i = 0; i < count; i++) {
+                matrix.zeroTarget(sourceRow, targets[i], multipliers[i], startColumn);
+            }
+
+            return;
+        }
+
+        int grain = Math.max(1, count / (pool.getParallelism() * 4));
+        pool.invoke(new EliminationTask(matrix, sourceRow, targets, multipliers, startColumn, 0, count, grain));
+    }
+
+    private static class EliminationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Matrix matrix;
+        private final int sourceRow;
+        private final int[] targets;
+        private final Complex[] multipliers;
+        private final int startColumn;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        EliminationTask(Matrix matrix, int sourceRow, int[] targets, Complex[] multipliers, int startColumn,
+                        int from, int to, int grain) {
+            this.matrix = matrix;
+            this.sourceRow = sourceRow;
+            this.targets = targets;
+            this.multipliers = multipliers;
+            this.startColumn = startColumn;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                for (int i = from; i < to; i++) {
+                    matrix.zeroTarget(sourceRow, targets[i], multipliers[i], startColumn);
+                }
+
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new EliminationTask(matrix, sourceRow, targets, multipliers, startColumn, from, middle, grain),
+                    new EliminationTask(matrix, sourceRow, targets, multipliers, startColumn, middle, to, grain));
+        }
+    }
+}
@@ -3,73 +3,25 @@ package solver.main.logic;
 import solver.main.control.Executor;
 import solver.main.model.Matrix;
 
+/**
+ * Works out the solution state from the row echelon form forward elimination leaves, and the rank it
+ * counted on the way.  The rows past the rank have no coefficients left, so only their constants need
+ * looking at, each column of them when there are several right-hand sides.
+ */
 public class SolutionChecker {
-    public Executor.SolutionState checkForSolution(Matrix matrix, int numberOfVariables) {
-        Executor.SolutionState state = checkForNonZeroConstants(matrix);
-
-        if (state != Executor.SolutionState.SOLUTION) {
-            return state;
-        }
-
-        return checkSignificantEquationsAndVariables(matrix, numberOfVariables);
-    }
-
-    private Executor.SolutionState checkForNonZeroConstants(Matrix matrix) {
-        final int constantIndex = matrix.getLineLength() - 1;
-        boolean thereIsASolution = true;
-
-        // loop through rows from bottom up
-        for (int row = matrix.getSize() - 1; row >= 0; row--) {
-            boolean allZeroColumns = true;
-
-            // loop through columns to see if they're all zero, except constant
-            for (int col = 0; col < constantIndex; col++) {
-                if (!matrix.getCoefficient(row, col).isZero()) {
-                    allZeroColumns = false;
-                    break;
+    public Executor.SolutionState checkForSolution(Matrix matrix, int numberOfVariables, int rank) {
+        // all column coefficients are zero, but a constant is not
+        for (int row = rank; row < matrix.getSize(); row++) {
+            for (int column = numberOfVariables; column < matrix.getLineLength(); column++) {
+                if (!matrix.isZero(row, column)) {
+                    return Executor.SolutionState.NO_SOLUTION;
                 }
             }
-
-            // all column coefficients are zero, but the constant is not
-            if (allZeroColumns && !matrix.getCoefficient(row, constantIndex).isZero()) {
-                thereIsASolution = false;
-                break;
-            }
-        }
-
-        if (thereIsASolution) {
-            return Executor.SolutionState.SOLUTION;
-        }
-
-        return Executor.SolutionState.NO_SOLUTION;
-    }
-
-    private Executor.SolutionState checkSignificantEquationsAndVariables(Matrix matrix, int numberOfVariables) {
-        int significantEquations = 0;
-
-        for (int row = 0; row < matrix.getSize(); row++) {
-            boolean equationIsSignificant = false;
-
-            // loop through all coefficients but not the constant
-            for (int col = 0; col < matrix.getLineLength() - 1; col++) {
-                if (!matrix.getCoefficient(row, col).isZero()) {
-                    equationIsSignificant = true;
-                    break;
-                }
-            }
-
-            if (equationIsSignificant) {
-                significantEquations++;
-            }
-        }
-
-        if (significantEquations == numberOfVariables) {
-            return Executor.SolutionState.SOLUTION;
         }
 
-        // Equations < variables.
-        // The situation where the number of significant equations is greater than
-        // the number of variables is handled in the method checkForNonZeroConstants()
-        return Executor.SolutionState.INFINITE_SOLUTIONS;
+        // Fewer independent equations than variables leaves some variables free
+        return rank == numberOfVariables
+                ? Executor.SolutionState.SOLUTION
+                : Executor.SolutionState.INFINITE_SOLUTIONS;
     }
 }
@@ -0,0 +1,427 @@
+package solver.main.logic;
+
+import solver.main.model.Complex;
+import solver.main.model.Matrix;
+import solver.main.model.SparseMatrix;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Sparse LU factorization, {@code PAQ = LU}, in complex double arithmetic.  Only non-zeros are
+ * stored and touched, so the work follows the number of non-zeros and the fill-in, not n<sup>2</sup>.
+ * <p>
+ * Pivots are chosen by the Markowitz criterion: of the elements in the few active columns with the
+ * fewest non-zeros, take the one with the smallest {@code (rowCount - 1) * (columnCount - 1)}, the
+ * most fill it can cause.  Only elements at least {@link #PIVOT_THRESHOLD} times the largest in
+ * their column qualify, which keeps the factorization stable.
+ */
+public class SparseLuFactorization {
+
+    /** A pivot smaller than this, relative to the largest element, means the matrix is singular */
+    private static final double SINGULAR_TOLERANCE = 1e-12;
+
+    /** How large a pivot must be next to the largest element of its column */
+    private static final double PIVOT_THRESHOLD = 0.1;
+
+    /** How many of the sparsest columns are searched for a pivot at each step */
+    private static final int SEARCH_COLUMNS = 4;
+
+    private final int size;
+
+    // The active submatrix, row by row; the columns of a row are in no particular order
+    private final int[][] rowColumns;
+    private final double[][] rowReal;
+    private final double[][] rowImaginary;
+    private final int[] rowCount;
+    private final boolean[] rowActive;
+
+    // The rows that hold each column, possibly including rows that have since been pivot rows
+    private final int[][] columnRows;
+    private final int[] columnRowCount;
+    private final int[] columnCount;
+    private final boolean[] columnActive;
+
+    // Step k: pivot row and column, the pivot, the multipliers of L and the rest of U's row
+    private final int[] rowOrder;
+    private final int[] columnOrder;
+    private final double[] pivotReal;
+    private final double[] pivotImaginary;
+    private final int[][] lowerRows;
+    private final double[][] lowerReal;
+    private final double[][] lowerImaginary;
+    private final int[][] upperColumns;
+    private final double[][] upperReal;
+    private final double[][] upperImaginary;
+
+    private long fillIn = 0;
+
+    private SparseLuFactorization(int size) {
+        this.size = size;
+        rowColumns = new int[size][];
+        rowReal = new double[size][];
+        rowImaginary = new double[size][];
+        rowCount = new int[size];
+        rowActive = new boolean[size];
+        columnRows = new int[size][];
+        columnRowCount = new int[size];
+        columnCount = new int[size];
+        columnActive = new boolean[size];
+        rowOrder = new int[size];
+        columnOrder = new int[size];
+        pivotReal = new double[size];
+        pivotImaginary = new double[size];
+        lowerRows = new int[size][];
+        lowerReal = new double[size][];
+        lowerImaginary = new double[size][];
+        upperColumns = new int[size][];
+        upperReal = new double[size][];
+        upperImaginary = new double[size][];
+    }
+
+    /**
+     * Factor the square coefficient part of an augmented matrix.  The matrix is not changed.
+     * @param matrix the augmented matrix, best a {@link SparseMatrix}
+     * @param size the number of variables, which must equal the number of equations
+     * @return the factorization, or {@code null} if the matrix is singular
+     */
+    public static SparseLuFactorization factor(Matrix matrix, int size) {
+        SparseLuFactorization lu = new SparseLuFactorization(size);
+        lu.copyFrom(matrix);
+
+        return lu.decompose() ? lu : null;
+    }
+
+    private void copyFrom(Matrix matrix) {
+        Arrays.fill(rowActive, true);
+        Arrays.fill(columnActive, true);
+
+        for (int column = 0; column < size; column++) {
+            columnRows[column] = new int[4];
+        }
+
+        for (int row = 0; row < size; row++) {
+            rowColumns[row] = new int[4];
+            rowReal[row] = new double[4];
+            rowImaginary[row] = new double[4];
+
+            if (matrix instanceof SparseMatrix) {
+                SparseMatrix sparse = (SparseMatrix) matrix;
+
+                for (int k = 0; k < sparse.getRowCount(row) && sparse.getColumnAt(row, k) < size; k++) {
+                    append(row, sparse.getColumnAt(row, k), sparse.getRealAt(row, k), sparse.getImaginaryAt(row, k));
+                }
+            } else {
+                for (int column = 0; column < size; column++) {
+                    Complex coefficient = matrix.getCoefficient(row, column);
+                    double real = coefficient.getReal().doubleValue();
+                    double imaginary = coefficient.getImaginary().doubleValue();
+
+                    if (real != 0 || imaginary != 0) {
+                        append(row, column, real, imaginary);
+                    }
+                }
+            }
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /** @return the number of non-zeros created by elimination that were not in the matrix */
+    public long getFillIn() {
+        return fillIn;
+    }
+
+    private boolean decompose() {
+        double largest = 0;
+
+        for (int row = 0; row < size; row++) {
+            for (int k = 0; k < rowCount[row]; k++) {
+                largest = Math.max(largest, magnitude(rowReal[row][k], rowImaginary[row][k]));
+            }
+        }
+
+        // compare squared magnitudes, so square the tolerance too
+        double tolerance = largest * SINGULAR_TOLERANCE * SINGULAR_TOLERANCE;
+
+        // Columns by how many non-zeros they hold; entries whose count is out of date are skipped
+        PriorityQueue<Long> sparsest = new PriorityQueue<>();
+
+        for (int column = 0; column < size; column++) {
+            sparsest.add(key(column));
+        }
+
+        int[] examined = new int[size];
+        int[] examinedAt = new int[size];
+        int[] marks = new int[size];
+        Arrays.fill(examinedAt, -1);
+        Arrays.fill(marks, -1);
+
+        for (int step = 0; step < size; step++) {
+            int pivotRow = -1;
+            int pivotColumn = -1;
+            long bestCost = Long.MAX_VALUE;
+            double bestMagnitude = 0;
+            int examinedCount = 0;
+            int usableColumns = 0;
+
+            while (!sparsest.isEmpty() && (pivotRow < 0 || usableColumns < SEARCH_COLUMNS) && bestCost > 0) {
+                long entry = sparsest.poll();
+                int column = (int) entry;
+
+                if (!columnActive[column] || (int) (entry >>> 32) != columnCount[column]
+                        || examinedAt[column] == step) {
+                    continue;
+                }
+
+                examinedAt[column] = step;
+                examined[examinedCount++] = column;
+                double columnLargest = 0;
+
+                for (int i = 0; i < columnRowCount[column]; i++) {
+                    int row = columnRows[column][i];
+
+                    if (rowActive[row]) {
+                        int position = find(row, column);
+                        columnLargest = Math.max(columnLargest,
+                                magnitude(rowReal[row][position], rowImaginary[row][position]));
+                    }
+                }
+
+                if (columnLargest <= tolerance) {
+                    continue;
+                }
+
+                usableColumns++;
+                double threshold = columnLargest * PIVOT_THRESHOLD * PIVOT_THRESHOLD;
+
+                for (int i = 0; i < columnRowCount[column]; i++) {
+                    int row = columnRows[column][i];
+
+                    if (!rowActive[row]) {
+                        continue;
+                    }
+
+                    int position = find(row, column);
+                    double magnitude = magnitude(rowReal[row][position], rowImaginary[row][position]);
+
+                    if (magnitude < threshold) {
+                        continue;
+                    }
+
+                    long cost = (long) (rowCount[row] - 1) * (columnCount[column] - 1);
+
+                    if (cost < bestCost || (cost == bestCost && magnitude > bestMagnitude)) {
+                        bestCost = cost;
+                        bestMagnitude = magnitude;
+                        pivotRow = row;
+                        pivotColumn = column;
+                    }
+                }
+            }
+
+            for (int i = 0; i < examinedCount; i++) {
+                if (examined[i] != pivotColumn) {
+                    sparsest.add(key(examined[i]));
+                }
+            }
+
+            if (pivotRow < 0) {
+                return false;
+            }
+
+            eliminate(step, pivotRow, pivotColumn, marks);
+
+            for (int k = 0; k < upperColumns[step].length; k++) {
+                sparsest.add(key(upperColumns[step][k]));
+            }
+        }
+
+        return true;
+    }
+
+    // Take the pivot out of the active submatrix and subtract multiples of its row from the rows below it
+    private void eliminate(int step, int pivotRow, int pivotColumn, int[] marks) {
+        rowActive[pivotRow] = false;
+        columnActive[pivotColumn] = false;
+        rowOrder[step] = pivotRow;
+        columnOrder[step] = pivotColumn;
+
+        int pivotPosition = find(pivotRow, pivotColumn);
+        pivotReal[step] = rowReal[pivotRow][pivotPosition];
+        pivotImaginary[step] = rowImaginary[pivotRow][pivotPosition];
+        removeAt(pivotRow, pivotPosition);
+
+        // What is left of the pivot row is this step's row of U
+        int upperCount = rowCount[pivotRow];
+        int[] columns = Arrays.copyOf(rowColumns[pivotRow], upperCount);
+        double[] upperRe = Arrays.copyOf(rowReal[pivotRow], upperCount);
+        double[] upperIm = Arrays.copyOf(rowImaginary[pivotRow], upperCount);
+        upperColumns[step] = columns;
+        upperReal[step] = upperRe;
+        upperImaginary[step] = upperIm;
+
+        for (int column : columns) {
+            columnCount[column]--;
+        }
+
+        double denominator = magnitude(pivotReal[step], pivotImaginary[step]);
+        double inverseReal = pivotReal[step] / denominator;
+        double inverseImaginary = -pivotImaginary[step] / denominator;
+
+        int[] targets = columnRows[pivotColumn];
+        int lowerCount = 0;
+        int[] lowerRowsOfStep = new int[columnCount[pivotColumn]];
+        double[] lowerRe = new double[lowerRowsOfStep.length];
+        double[] lowerIm = new double[lowerRowsOfStep.length];
+
+        for (int i = 0; i < columnRowCount[pivotColumn]; i++) {
+            int row = targets[i];
+
+            if (!rowActive[row]) {
+                continue;
+            }
+
+            int position = find(row, pivotColumn);
+            double real = rowReal[row][position];
+            double imaginary = rowImaginary[row][position];
+            removeAt(row, position);
+
+            double multiplierReal = real * inverseReal - imaginary * inverseImaginary;
+            double multiplierImaginary = real * inverseImaginary + imaginary * inverseReal;
+            lowerRowsOfStep[lowerCount] = row;
+            lowerRe[lowerCount] = multiplierReal;
+            lowerIm[lowerCount] = multiplierImaginary;
+            lowerCount++;
+
+            // Remember where each of this row's columns is, then row -= multiplier * pivot row
+            for (int k = 0; k < rowCount[row]; k++) {
+                marks[rowColumns[row][k]] = k;
+            }
+
+            for (int k = 0; k < upperCount; k++) {
+                int column = columns[k];
+                double productReal = multiplierReal * upperRe[k] - multiplierImaginary * upperIm[k];
+                double productImaginary = multiplierReal * upperIm[k] + multiplierImaginary * upperRe[k];
+                int target = marks[column];
+
+                if (target >= 0) {
+                    rowReal[row][target] -= productReal;
+                    rowImaginary[row][target] -= productImaginary;
+                } else {
+                    append(row, column, -productReal, -productImaginary);
+                    fillIn++;
+                }
+            }
+
+            for (int k = 0; k < rowCount[row]; k++) {
+                marks[rowColumns[row][k]] = -1;
+            }
+        }
+
+        lowerRows[step] = Arrays.copyOf(lowerRowsOfStep, lowerCount);
+        lowerReal[step] = Arrays.copyOf(lowerRe, lowerCount);
+        lowerImaginary[step] = Arrays.copyOf(lowerIm, lowerCount);
+        columnRows[pivotColumn] = null;
+        columnCount[pivotColumn] = 0;
+    }
+
+    /**
+     * Solve {@code AX = B} for one right-hand side.
+     * @param real on entry the real parts of the constants, by equation; on exit those of the solution
+     * @param imaginary the same for the imaginary parts
+     */
+    public void solve(double[] real, double[] imaginary) {
+
+        // Forward: apply L's multipliers in pivot order
+        for (int step = 0; step < size; step++) {
+            int pivotRow = rowOrder[step];
+            double constantReal = real[pivotRow];
+            double constantImaginary = imaginary[pivotRow];
+
+            for (int i = 0; i < lowerRows[step].length; i++) {
+                int row = lowerRows[step][i];
+                double multiplierReal = lowerReal[step][i];
+                double multiplierImaginary = lowerImaginary[step][i];
+                real[row] -= multiplierReal * constantReal - multiplierImaginary * constantImaginary;
+                imaginary[row] -= multiplierReal * constantImaginary + multiplierImaginary * constantReal;
+            }
+        }
+
+        // Back: each step's row of U gives the variable in its pivot column
+        double[] solutionReal = new double[size];
+        double[] solutionImaginary = new double[size];
+
+        for (int step = size - 1; step >= 0; step--) {
+            double sumReal = real[rowOrder[step]];
+            double sumImaginary = imaginary[rowOrder[step]];
+
+            for (int k = 0; k < upperColumns[step].length; k++) {
+                int column = upperColumns[step][k];
+                sumReal -= upperReal[step][k] * solutionReal[column] - upperImaginary[step][k] * solutionImaginary[column];
+                sumImaginary -= upperReal[step][k] * solutionImaginary[column] + upperImaginary[step][k] * solutionReal[column];
+            }
+
+            double denominator = magnitude(pivotReal[step], pivotImaginary[step]);
+            int variable = columnOrder[step];
+            solutionReal[variable] = (sumReal * pivotReal[step] + sumImaginary * pivotImaginary[step]) / denominator;
+            solutionImaginary[variable] = (sumImaginary * pivotReal[step] - sumReal * pivotImaginary[step]) / denominator;
+        }
+
+        System.arraycopy(solutionReal, 0, real, 0, size);
+        System.arraycopy(solutionImaginary, 0, imaginary, 0, size);
+    }
+
+    private void append(int row, int column, double real, double imaginary) {
+        int count = rowCount[row];
+
+        if (count == rowColumns[row].length) {
+            int capacity = count * 2;
+            rowColumns[row] = Arrays.copyOf(rowColumns[row], capacity);
+            rowReal[row] = Arrays.copyOf(rowReal[row], capacity);
+            rowImaginary[row] = Arrays.copyOf(rowImaginary[row], capacity);
+        }
+
+        rowColumns[row][count] = column;
+        rowReal[row][count] = real;
+        rowImaginary[row][count] = imaginary;
+        rowCount[row]++;
+
+        if (columnRowCount[column] == columnRows[column].length) {
+            columnRows[column] = Arrays.copyOf(columnRows[column], columnRowCount[column] * 2);
+        }
+
+        columnRows[column][columnRowCount[column]++] = row;
+        columnCount[column]++;
+    }
+
+    // Order doesn't matter within a row, so the last element fills the gap
+    private void removeAt(int row, int position) {
+        int last = --rowCount[row];
+        rowColumns[row][position] = rowColumns[row][last];
+        rowReal[row][position] = rowReal[row][last];
+        rowImaginary[row][position] = rowImaginary[row][last];
+    }
+
+    private int find(int row, int column) {
+        int[] columns = rowColumns[row];
+
+        for (int k = 0; k < rowCount[row]; k++) {
+            if (columns[k] == column) {
+                return k;
+            }
+        }
+
+        return -1;
+    }
+
+    private long key(int column) {
+        return ((long) columnCount[column] << 32) | column;
+    }
+
+    private static double magnitude(double real, double imaginary) {
+        return real * real + imaginary * imaginary;
+    }
+}
@@ -0,0 +1,55 @@
+package solver.main.logic;
+
+import solver.main.control.Executor;
+import solver.main.model.Complex;
+import solver.main.model.Matrix;
+import solver.main.trace.Trace;
+
+/**
+ * Solves square, non-singular systems with a {@link SparseLuFactorization}, ordered to keep the
+ * fill-in down.  Anything else (non-square or singular) is handed to Gauss-Jordan elimination,
+ * which works out whether there are no or infinitely many solutions.
+ */
+public class SparseLuSolver implements LinearSolver {
+    private final LinearSolver fallback;
+    private final Trace trace;
+
+    /**
+     * @param fallback the solver for non-square or singular systems
+     * @param trace where to report the fill-in
+     */
+    public SparseLuSolver(LinearSolver fallback, Trace trace) {
+        this.fallback = fallback;
+        this.trace = trace;
+    }
+
+    @Override
+    public Executor.SolutionState solve(Matrix matrix, int numberOfVariables) {
+        if (matrix.getSize() != numberOfVariables || matrix.getLineLength() != numberOfVariables + 1) {
+            trace.message("System is not square, using Gauss-Jordan elimination");
+            return fallback.solve(matrix, numberOfVariables);
+        }
+
+        SparseLuFactorization lu = SparseLuFactorization.factor(matrix, numberOfVariables);
+
+        if (lu == null) {
+            trace.message("Matrix is singular, using Gauss-Jordan elimination");
+            return fallback.solve(matrix, numberOfVariables);
+        }
+
+        trace.message(String.format("Sparse LU: %d fill-ins", lu.getFillIn()));
+        double[] real = new double[numberOfVariables];
+        double[] imaginary = new double[numberOfVariables];
+
+        for (int row = 0; row < numberOfVariables; row++) {
+            Complex constant = matrix.getCoefficient(row, numberOfVariables);
+            real[row] = constant.getReal().doubleValue();
+            imaginary[row] = constant.getImaginary().doubleValue();
+        }
+
+        lu.solve(real, imaginary);
+        ReducedForm.store(matrix, real, imaginary);
+
+        return Executor.SolutionState.SOLUTION;
+    }
+}
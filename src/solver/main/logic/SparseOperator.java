@@ -0,0 +1,142 @@
+package solver.main.logic;
+
+import solver.main.model.Complex;
+import solver.main.model.DoubleMatrix;
+import solver.main.model.Matrix;
+import solver.main.model.SparseMatrix;
+
+/**
+ * The coefficient part of an augmented matrix in compressed sparse row form, for the iterative
+ * solvers, which only ever multiply by it.  Columns are in ascending order within each row.
+ */
+class SparseOperator {
+    final int size;
+    final int[] rowStart;
+    final int[] columns;
+    final double[] real;
+    final double[] imaginary;
+
+    /**
+     * @param matrix the augmented matrix
+     * @param size the number of variables, which must equal the number of equations
+     */
+    SparseOperator(Matrix matrix, int size) {
+        this.size = size;
+        rowStart = new int[size + 1];
+
+        for (int row = 0; row < size; row++) {
+            rowStart[row + 1] = rowStart[row] + countNonZeros(matrix, row);
+        }
+
+        columns = new int[rowStart[size]];
+        real = new double[rowStart[size]];
+        imaginary = new double[rowStart[size]];
+
+        for (int row = 0; row < size; row++) {
+            int next = rowStart[row];
+
+            if (matrix instanceof SparseMatrix) {
+                SparseMatrix sparse = (SparseMatrix) matrix;
+
+                for (int k = 0; k < sparse.getRowCount(row) && sparse.getColumnAt(row, k) < size; k++, next++) {
+                    columns[next] = sparse.getColumnAt(row, k);
+                    real[next] = sparse.getRealAt(row, k);
+                    imaginary[next] = sparse.getImaginaryAt(row, k);
+                }
+
+                continue;
+            }
+
+            for (int column = 0; column < size; column++) {
+                double re = realPart(matrix, row, column);
+                double im = imaginaryPart(matrix, row, column);
+
+                if (re != 0 || im != 0) {
+                    columns[next] = column;
+                    real[next] = re;
+                    imaginary[next] = im;
+                    next++;
+                }
+            }
+        }
+    }
+
+    private int countNonZeros(Matrix matrix, int row) {
+        int count = 0;
+
+        if (matrix instanceof SparseMatrix) {
+            SparseMatrix sparse = (SparseMatrix) matrix;
+
+            while (count < sparse.getRowCount(row) && sparse.getColumnAt(row, count) < size) {
+                count++;
+            }
+
+            return count;
+        }
+
+        for (int column = 0; column < size; column++) {
+            if (realPart(matrix, row, column) != 0 || imaginaryPart(matrix, row, column) != 0) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private static double realPart(Matrix matrix, int row, int column) {
+        if (matrix instanceof DoubleMatrix) {
+            return ((DoubleMatrix) matrix).getRealPart(row, column);
+        }
+
+        return matrix.getCoefficient(row, column).getReal().doubleValue();
+    }
+
+    private static double imaginaryPart(Matrix matrix, int row, int column) {
+        if (matrix instanceof DoubleMatrix) {
+            return ((DoubleMatrix) matrix).getImaginaryPart(row, column);
+        }
+
+        return matrix.getCoefficient(row, column).getImaginary().doubleValue();
+    }
+
+    /** y = A x */
+    void multiply(double[] xReal, double[] xImaginary, double[] yReal, double[] yImaginary) {
+        for (int row = 0; row < size; row++) {
+            double sumReal = 0;
+            double sumImaginary = 0;
+
+            for (int k = rowStart[row]; k < rowStart[row + 1]; k++) {
+                int column = columns[k];
+                sumReal += real[k] * xReal[column] - imaginary[k] * xImaginary[column];
+                sumImaginary += real[k] * xImaginary[column] + imaginary[k] * xReal[column];
+            }
+
+            yReal[row] = sumReal;
+            yImaginary[row] = sumImaginary;
+        }
+    }
+
+    /** @return the position of element (row, column), or -1 if it is zero */
+    int find(int row, int column) {
+        for (int k = rowStart[row]; k < rowStart[row + 1] && columns[k] <= column; k++) {
+            if (columns[k] == column) {
+                return k;
+            }
+        }
+
+        return -1;
+    }
+
+    /** @return the constant column of the augmented matrix, as its real and imaginary parts */
+    static double[][] constants(Matrix matrix, int size) {
+        double[][] constants = new double[2][size];
+
+        for (int row = 0; row < size; row++) {
+            Complex constant = matrix.getCoefficient(row, size);
+            constants[0][row] = constant.getReal().doubleValue();
+            constants[1][row] = constant.getImaginary().doubleValue();
+        }
+
+        return constants;
+    }
+}
@@ -0,0 +1,166 @@
+package solver.main.logic;
+
+import solver.main.model.Complex;
+import solver.main.model.DoubleMatrix;
+import solver.main.model.Matrix;
+import solver.main.model.SparseMatrix;
+
+/**
+ * Finds how far the non-zero coefficients of a square system reach from the diagonal: the lower
+ * bandwidth is the most columns any non-zero lies left of it, the upper bandwidth the most right of it.
+ * That alone tells a diagonal, triangular, tridiagonal or banded matrix from a general one.  Only
+ * exact zeros count as zeros, since a small coefficient left out would change the answer.
+ * <p>
+ * A {@link SparseMatrix} is read by its non-zeros, anything else element by element, so the pass costs
+ * O(n<sup>2</sup>) at most, next to the O(n<sup>3</sup>) of elimination.
+ */
+public final class StructureAnalyzer {
+
+    private StructureAnalyzer() {
+    }
+
+    /**
+     * @param matrix the augmented matrix
+     * @param size the number of variables, which must equal the number of equations
+     * @return the structure of the coefficient part
+     */
+    public static Structure analyze(Matrix matrix, int size) {
+        int lower = 0;
+        int upper = 0;
+
+        for (int row = 0; row < size; row++) {
+            int first = -1;
+            int last = -1;
+
+            if (matrix instanceof SparseMatrix) {
+                SparseMatrix sparse = (SparseMatrix) matrix;
+
+                // The columns of a sparse row are in ascending order
+                for (int k = 0; k < sparse.getRowCount(row) && sparse.getColumnAt(row, k) < size; k++) {
+                    if (sparse.getRealAt(row, k) != 0 || sparse.getImaginaryAt(row, k) != 0) {
+                        first = first < 0 ? sparse.getColumnAt(row, k) : first;
+                        last = sparse.getColumnAt(row, k);
+                    }
+                }
+            } else {
+                for (int column = 0; column < size; column++) {
+                    if (!isZero(matrix, row, column)) {
+                        first = first < 0 ? column : first;
+                        last = column;
+                    }
+                }
+            }
+
+            if (first >= 0) {
+                lower = Math.max(lower, row - first);
+                upper = Math.max(upper, last - row);
+            }
+        }
+
+        return new Structure(size, lower, upper);
+    }
+
+    private static boolean isZero(Matrix matrix, int row, int column) {
+        if (matrix instanceof DoubleMatrix) {
+            DoubleMatrix dense = (DoubleMatrix) matrix;
+            return dense.getRealPart(row, column) == 0 && dense.getImaginaryPart(row, column) == 0;
+        }
+
+        Complex coefficient = matrix.getCoefficient(row, column);
+
+        return coefficient.getReal().signum() == 0 && coefficient.getImaginary().signum() == 0;
+    }
+
+    /**
+     * Check whether the coefficients are Hermitian: every element the exact conjugate of its mirror image
+     * across the diagonal, so the diagonal is real.  A real symmetric matrix is Hermitian too.
+     * @param matrix the augmented matrix
+     * @param size the number of variables, which must equal the number of equations
+     */
+    public static boolean isHermitian(Matrix matrix, int size) {
+        for (int row = 0; row < size; row++) {
+            if (matrix instanceof SparseMatrix) {
+                SparseMatrix sparse = (SparseMatrix) matrix;
+
+                // Each non-zero is checked against its mirror, so a zero mirrored by a non-zero is caught too
+                for (int k = 0; k < sparse.getRowCount(row) && sparse.getColumnAt(row, k) < size; k++) {
+                    Complex mirror = sparse.getCoefficient(sparse.getColumnAt(row, k), row);
+
+                    if (sparse.getRealAt(row, k) != mirror.getReal().doubleValue()
+                            || sparse.getImaginaryAt(row, k) != -mirror.getImaginary().doubleValue()) {
+                        return false;
+                    }
+                }
+            } else {
+                for (int column = 0; column <= row; column++) {
+                    if (!isConjugatePair(matrix, row, column)) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isConjugatePair(Matrix matrix, int row, int column) {
+        if (matrix instanceof DoubleMatrix) {
+            DoubleMatrix dense = (DoubleMatrix) matrix;
+            return dense.getRealPart(row, column) == dense.getRealPart(column, row)
+                    && dense.getImaginaryPart(row, column) == -dense.getImaginaryPart(column, row);
+        }
+
+        Complex coefficient = matrix.getCoefficient(row, column);
+        Complex conjugate = matrix.getCoefficient(column, row).conjugate();
+
+        return coefficient.getReal().compareTo(conjugate.getReal()) == 0
+                && coefficient.getImaginary().compareTo(conjugate.getImaginary()) == 0;
+    }
+
+    /** The bandwidths of a square coefficient matrix, and the kind of matrix they make it */
+    public static class Structure {
+        public enum Kind { DIAGONAL, UPPER_TRIANGULAR, LOWER_TRIANGULAR, TRIDIAGONAL, BANDED, GENERAL }
+
+        private final int lowerBandwidth;
+        private final int upperBandwidth;
+        private final Kind kind;
+
+        private Structure(int size, int lowerBandwidth, int upperBandwidth) {
+            this.lowerBandwidth = lowerBandwidth;
+            this.upperBandwidth = upperBandwidth;
+
+            if (lowerBandwidth == 0 && upperBandwidth == 0) {
+                kind = Kind.DIAGONAL;
+            } else if (lowerBandwidth == 0) {
+                kind = Kind.UPPER_TRIANGULAR;
+            } else if (upperBandwidth == 0) {
+                kind = Kind.LOWER_TRIANGULAR;
+            } else if (lowerBandwidth == 1 && upperBandwidth == 1) {
+                kind = Kind.TRIDIAGONAL;
+            } else if (lowerBandwidth + upperBandwidth + 1 <= size / 2) {
+                // A band any wider saves too little over dense elimination to be worth its own storage
+                kind = Kind.BANDED;
+            } else {
+                kind = Kind.GENERAL;
+            }
+        }
+
+        public int getLowerBandwidth() {
+            return lowerBandwidth;
+        }
+
+        public int getUpperBandwidth() {
+            return upperBandwidth;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s, bandwidths %d below and %d above the diagonal",
+                    kind.name().toLowerCase().replace('_', ' '), lowerBandwidth, upperBandwidth);
+        }
+    }
+}
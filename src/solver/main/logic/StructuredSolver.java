@@ -0,0 +1,116 @@
+package solver.main.logic;
+
+import solver.main.control.Executor;
+import solver.main.model.Complex;
+import solver.main.model.Matrix;
+import solver.main.trace.Trace;
+
+/**
+ * Looks at the shape of a square system before solving it.  A diagonal, triangular, tridiagonal or
+ * narrowly banded matrix is factored in band storage by {@link BandedLuFactorization}, in O(nb<sup>2</sup>)
+ * rather than O(n<sup>3</sup>), which for a diagonal or triangular matrix is plain substitution and for a
+ * tridiagonal one the Thomas algorithm.  A general matrix that is Hermitian gets a
+ * {@link CholeskyFactorization} instead, which is given up if the matrix turns out not to be positive
+ * definite.  Anything else, and any non-square or singular system, is handed to the fallback solver.
+ */
+public class StructuredSolver implements LinearSolver {
+    private final int blockSize;
+    private final LinearSolver fallback;
+    private final Trace trace;
+
+    /**
+     * @param blockSize the tile edge used by the Cholesky factorization
+     * @param fallback the solver for general, non-square or singular systems
+     * @param trace where to report the structure found
+     */
+    public StructuredSolver(int blockSize, LinearSolver fallback, Trace trace) {
+        this.blockSize = blockSize;
+        this.fallback = fallback;
+        this.trace = trace;
+    }
+
+    @Override
+    public Executor.SolutionState solve(Matrix matrix, int numberOfVariables) {
+        if (matrix.getSize() != numberOfVariables || matrix.getLineLength() != numberOfVariables + 1) {
+            trace.message("System is not square, using Gauss-Jordan elimination");
+            return fallback.solve(matrix, numberOfVariables);
+        }
+
+        StructureAnalyzer.Structure structure = StructureAnalyzer.analyze(matrix, numberOfVariables);
+        trace.message("Matrix is " + structure);
+
+        if (structure.getKind() == StructureAnalyzer.Structure.Kind.GENERAL) {
+            return solveGeneral(matrix, numberOfVariables);
+        }
+
+        BandedLuFactorization lu = BandedLuFactorization.factor(matrix, numberOfVariables,
+                structure.getLowerBandwidth(), structure.getUpperBandwidth());
+
+        if (lu == null) {
+            trace.message("Matrix is singular, using Gauss-Jordan elimination");
+            return fallback.solve(matrix, numberOfVariables);
+        }
+
+        trace.message(describe(structure.getKind(), lu.isPivoting()));
+
+        for (int k = 0; k < numberOfVariables; k++) {
+            if (lu.getPivot(k) != k) {
+                trace.swapRows(k, lu.getPivot(k));
+            }
+        }
+
+        double[] real = new double[numberOfVariables];
+        double[] imaginary = new double[numberOfVariables];
+        readConstants(matrix, numberOfVariables, real, imaginary);
+        lu.solve(real, imaginary);
+        ReducedForm.store(matrix, real, imaginary);
+
+        return Executor.SolutionState.SOLUTION;
+    }
+
+    private Executor.SolutionState solveGeneral(Matrix matrix, int numberOfVariables) {
+        if (!StructureAnalyzer.isHermitian(matrix, numberOfVariables)) {
+            trace.message("No structure to use, using Gauss-Jordan elimination");
+            return fallback.solve(matrix, numberOfVariables);
+        }
+
+        CholeskyFactorization cholesky = CholeskyFactorization.factor(matrix, numberOfVariables, blockSize);
+
+        if (cholesky == null) {
+            trace.message("Matrix is Hermitian but not positive definite, using Gauss-Jordan elimination");
+            return fallback.solve(matrix, numberOfVariables);
+        }
+
+        trace.message("Matrix is Hermitian positive definite, Cholesky factorization");
+        double[] real = new double[numberOfVariables];
+        double[] imaginary = new double[numberOfVariables];
+        readConstants(matrix, numberOfVariables, real, imaginary);
+        cholesky.solve(real, imaginary);
+        ReducedForm.store(matrix, real, imaginary);
+
+        return Executor.SolutionState.SOLUTION;
+    }
+
+    private static void readConstants(Matrix matrix, int numberOfVariables, double[] real, double[] imaginary) {
+        for (int row = 0; row < numberOfVariables; row++) {
+            Complex constant = matrix.getCoefficient(row, numberOfVariables);
+            real[row] = constant.getReal().doubleValue();
+            imaginary[row] = constant.getImaginary().doubleValue();
+        }
+    }
+
+    private static String describe(StructureAnalyzer.Structure.Kind kind, boolean pivoting) {
+        switch (kind) {
+            case DIAGONAL:
+                return "Dividing by the diagonal";
+            case UPPER_TRIANGULAR:
+                return "Back substitution";
+            case LOWER_TRIANGULAR:
+                return "Forward substitution";
+            case TRIDIAGONAL:
+                return pivoting ? "Tridiagonal LU with row interchanges" : "Thomas algorithm";
+            default:
+                return pivoting ? "Banded LU with row interchanges" : "Banded LU without row interchanges";
+        }
+    }
+}
@@ -4,8 +4,6 @@ import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Represents a complex number.  Immutable (I think).
@@ -18,84 +16,71 @@ public class Complex {
     public static final Complex ONE = new Complex(BigDecimal.ONE, BigDecimal.ZERO);
     public static final Complex NEGATIVE_ONE = new Complex(new BigDecimal("-1"), BigDecimal.ZERO);
 
-    private static final String RE_UNSIGNED_DECIMAL = "\\d+(\\.\\d+)?";
-    private static final String RE_COMPLEX_NUMBER =
-            "(?<realPart>" +
-              "-?" +
-              RE_UNSIGNED_DECIMAL +
-            ")" +
-            "(?<imaginaryPart>" +
-              "[-+]" +
-              RE_UNSIGNED_DECIMAL +
-            ")" +
-            "i";
-    private static final Pattern COMPLEX_NUMBER = Pattern.compile(RE_COMPLEX_NUMBER);
-
-    private static final String RE_IMAGINARY_IS_ONE=
-            "(?<realPart>" +
-              "-?" +
-              RE_UNSIGNED_DECIMAL +
-            ")" +
-            "(?<sign>[-+])" +
-            "i";
-    private static final Pattern IMAGINARY_IS_ONE = Pattern.compile(RE_IMAGINARY_IS_ONE);
-
-    private static final String RE_IMAGINARY_ONLY = "(?<imaginaryPart>-?" + RE_UNSIGNED_DECIMAL + ")i";
-    private static final Pattern IMAGINARY_ONLY = Pattern.compile(RE_IMAGINARY_ONLY);
+    public static final int DEFAULT_DIVIDE_SCALE = 128;
+    public static final BigDecimal DEFAULT_ZERO_TOLERANCE = new BigDecimal("0.00005");
 
     private static final MathContext MATH_CONTEXT = MathContext.DECIMAL128;
     private static final int PLACES_TO_ROUND = 4;
     private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_EVEN;
-    private static final int DIVIDE_SCALE = 128;
 
-    public static Complex parse(String in) {
-        if ("i".equals(in)) {
-            return new Complex(BigDecimal.ZERO, BigDecimal.ONE);
-        } else if ("-i".equals(in)) {
-            return new Complex(BigDecimal.ZERO, new BigDecimal("-1"));
-        } else if (!in.endsWith("i")) {
-            return new Complex(new BigDecimal(in, MATH_CONTEXT));
-        }
-
-        // isn't i or -i and ends with "i"
-        // look for n+i or n-i
-        Matcher matcher = IMAGINARY_IS_ONE.matcher(in);
-
-        if (matcher.matches()) {
-            String realPart = matcher.group("realPart");
-            String sign = matcher.group("sign");
-            String imaginaryPart = "1";
-
-            if ("-".equals(sign)) {
-                imaginaryPart = "-1";
-            }
+    private static int divideScale = DEFAULT_DIVIDE_SCALE;
+    private static MathContext productContext = new MathContext(DEFAULT_DIVIDE_SCALE, ROUNDING_MODE);
+    private static BigDecimal zeroTolerance = DEFAULT_ZERO_TOLERANCE;
+    private static BigDecimal negativeZeroTolerance = DEFAULT_ZERO_TOLERANCE.negate();
+    private static double doubleZeroTolerance = DEFAULT_ZERO_TOLERANCE.doubleValue();
 
-            return new Complex(new BigDecimal(realPart, MATH_CONTEXT), new BigDecimal(imaginaryPart, MATH_CONTEXT));
-        }
+    /**
+     * Set the arithmetic every complex number uses: the scale quotients are rounded to, and how close
+     * to zero a part must be to count as zero.  Call once, at startup, before anything is solved.
+     * @param scale digits after the decimal point kept by {@link #divide(Complex)} and {@link #inverse()}
+     * @param tolerance parts whose magnitude is at most this are zero
+     */
+    public static void setArithmetic(int scale, BigDecimal tolerance) {
+        divideScale = scale;
+        productContext = new MathContext(Math.max(scale, MATH_CONTEXT.getPrecision()), ROUNDING_MODE);
+        zeroTolerance = tolerance.abs();
+        negativeZeroTolerance = zeroTolerance.negate();
+        doubleZeroTolerance = zeroTolerance.doubleValue();
+    }
 
-        // look for imaginary part <> 1 or -1
-        matcher = IMAGINARY_ONLY.matcher(in);
+    /**
+     * @return the significant digits a {@link MutableComplex} rounds its sums to: as many as quotients keep
+     * decimal places, but never fewer than the input is read with
+     */
+    public static MathContext getMathContext() {
+        return productContext;
+    }
 
-        if (matcher.matches()) {
-            String imaginaryPart = matcher.group("imaginaryPart");
+    /** @return the magnitude at or below which a part counts as zero */
+    public static BigDecimal getZeroTolerance() {
+        return zeroTolerance;
+    }
 
-            return new Complex(BigDecimal.ZERO, new BigDecimal(imaginaryPart, MATH_CONTEXT));
-        }
+    /** @return the zero tolerance as a {@code double}, for storage that tests its parts without a {@code Complex} */
+    public static double getDoubleZeroTolerance() {
+        return doubleZeroTolerance;
+    }
 
-        // both real and imaginary parts
-        matcher = COMPLEX_NUMBER.matcher(in);
+    public static Complex parse(String in) {
+        ComplexParser parser = new ComplexParser();
 
-        if (!matcher.matches()) {
+        if (!parser.scan(in.toCharArray(), 0, in.length())) {
             Exception e = new RuntimeException(String.format("Can't match complex number (%s)%n", in));
             e.printStackTrace();
 
             return Complex.NaN;
         }
 
-        String realPart = matcher.group("realPart");
-        String imaginaryPart = matcher.group("imaginaryPart");
+        return of(parser);
+    }
 
-        return new Complex(new BigDecimal(realPart, MATH_CONTEXT), new BigDecimal(imaginaryPart, MATH_CONTEXT));
+    /**
+     * Build a complex number from a token already scanned by a {@link ComplexParser}.
+     * @param parser a parser whose last {@code scan} succeeded
+     * @return a new complex number
+     */
+    public static Complex of(ComplexParser parser) {
+        return new Complex(parser.realAsBigDecimal(MATH_CONTEXT), parser.imaginaryAsBigDecimal(MATH_CONTEXT));
     }
 
     private final BigDecimal real;
@@ -117,13 +102,11 @@ public class Complex {
     }
 
     public Complex(double real, double imaginary) {
-        this(new BigDecimal(String.valueOf(real), MATH_CONTEXT),
-                new BigDecimal(String.valueOf(imaginary), MATH_CONTEXT),
-                Type.REGULAR);
+        this(BigDecimal.valueOf(real), BigDecimal.valueOf(imaginary), Type.REGULAR);
     }
 
     public Complex(double real) {
-        this(new BigDecimal(String.valueOf(real), MATH_CONTEXT), BigDecimal.ZERO, Type.REGULAR);
+        this(BigDecimal.valueOf(real), BigDecimal.ZERO, Type.REGULAR);
     }
 
     public Complex(Complex complex) {
@@ -142,6 +125,25 @@ public class Complex {
         return type;
     }
 
+    /**
+     * About how many bytes this number takes on a 64-bit JVM with compressed references: the object and
+     * its two {@code BigDecimal}s, and their {@code BigInteger}s once they outgrow a {@code long}.
+     */
+    long estimateHeapBytes() {
+        return 24 + estimateHeapBytes(real) + estimateHeapBytes(imaginary);
+    }
+
+    private static long estimateHeapBytes(BigDecimal value) {
+        int precision = value.precision();
+
+        if (precision <= 18) {
+            return 40;
+        }
+
+        // log2(10) bits a digit, in 32-bit words, plus the BigInteger and its array
+        return 40 + 40 + 16 + 4L * ((long) (precision * 3.33) / 32 + 1);
+    }
+
     /**
      * The {@code complex} parameter that is added to this complex number.
      * The parameter is not changed.
@@ -169,6 +171,20 @@ public class Complex {
      * @return a new complex number
      */
     public Complex multiply(Complex complex) {
+        boolean isReal = imaginary.signum() == 0;
+        boolean otherIsReal = complex.getImaginary().signum() == 0;
+
+        // The terms with a zero imaginary part drop out, which leaves the same values
+        if (isReal && otherIsReal) {
+            return new Complex(real.multiply(complex.getReal()));
+        }
+
+        if (isReal || otherIsReal) {
+            BigDecimal factor = isReal ? real : complex.getReal();
+            Complex other = isReal ? complex : this;
+            return new Complex(other.getReal().multiply(factor), other.getImaginary().multiply(factor));
+        }
+
         // newReal = real * complex.getReal() - imaginary * complex.getImaginary()
         BigDecimal newReal = (real.multiply(complex.getReal())).subtract(imaginary.multiply(complex.getImaginary()));
 
@@ -188,30 +204,42 @@ public class Complex {
         // denominator = complex.getReal() * complex.getReal() + complex.getImaginary() * complex.getImaginary()
         BigDecimal denominator = (complex.getReal().multiply(complex.getReal()))
                 .add(complex.getImaginary().multiply(complex.getImaginary()));
-        BigDecimal denominatorToCompare = denominator.setScale(PLACES_TO_ROUND, ROUNDING_MODE);
-        BigDecimal zeroToCompare = BigDecimal.ZERO.setScale(PLACES_TO_ROUND, ROUNDING_MODE);
-
-
-        if (denominatorToCompare.equals(zeroToCompare)) {
+        if (isWithinTolerance(denominator)) {
             Exception e = new RuntimeException("Attempted division by zero");
             e.printStackTrace();
 
             return Complex.NaN;
         }
 
+        // By a real number, (a + bi) * c / c^2 is exactly (a + bi) / c, so it rounds the same
+        if (complex.getImaginary().signum() == 0) {
+            return new Complex(real.divide(complex.getReal(), divideScale, ROUNDING_MODE),
+                    imaginary.signum() == 0
+                            ? BigDecimal.ZERO
+                            : imaginary.divide(complex.getReal(), divideScale, ROUNDING_MODE));
+        }
+
         // newReal = (real * complex.getReal() + imaginary * complex.getImaginary()) / denominator
         BigDecimal newReal = ((real.multiply(complex.getReal()))
                 .add(imaginary.multiply(complex.getImaginary())))
-                .divide(denominator, DIVIDE_SCALE, ROUNDING_MODE);
+                .divide(denominator, divideScale, ROUNDING_MODE);
 
         // newImaginary = (complex.getReal() * imaginary - real * complex.getImaginary()) / denominator
         BigDecimal newImaginary = ((complex.getReal().multiply(imaginary))
                 .subtract(real.multiply(complex.getImaginary())))
-                .divide(denominator, DIVIDE_SCALE, ROUNDING_MODE);
+                .divide(denominator, divideScale, ROUNDING_MODE);
 
         return new Complex(newReal, newImaginary);
     }
 
+    /**
+     * The complex conjugate, with the imaginary part negated.
+     * @return a new complex number
+     */
+    public Complex conjugate() {
+        return new Complex(real, imaginary.negate());
+    }
+
     /**
      * Negate this complex number.
      * @return a new number negated
@@ -226,33 +254,36 @@ public class Complex {
      */
     // inverse = conjugate / a^2 - b^2, conjugate = a - bi
     public Complex inverse() {
+        if (imaginary.signum() == 0 && real.signum() != 0) {
+            return new Complex(BigDecimal.ONE.divide(real, divideScale, ROUNDING_MODE));
+        }
+
         BigDecimal denominator = (real.multiply(real))
                 .subtract(imaginary.multiply(imaginary).multiply(new BigDecimal("-1"))); // i^2 = -1
 
-        if (denominator.equals(BigDecimal.ZERO)) {
+        if (denominator.signum() == 0) {
             Exception e = new RuntimeException("Attempt to divide by zero");
             e.printStackTrace();
 
             return Complex.NaN;
         }
 
-        return new Complex(real.divide(denominator, DIVIDE_SCALE, ROUNDING_MODE),
-                imaginary.divide(denominator, DIVIDE_SCALE, ROUNDING_MODE)
+        return new Complex(real.divide(denominator, divideScale, ROUNDING_MODE),
+                imaginary.divide(denominator, divideScale, ROUNDING_MODE)
                         .multiply(new BigDecimal("-1")));
     }
 
     public boolean realIsZero() {
-        BigDecimal realToCompare = real.setScale(PLACES_TO_ROUND, ROUNDING_MODE);
-        BigDecimal zeroToCompare = BigDecimal.ZERO.setScale(PLACES_TO_ROUND, ROUNDING_MODE);
-
-        return realToCompare.equals(zeroToCompare);
+        return isWithinTolerance(real);
     }
 
     public boolean imaginaryIsZero() {
-        BigDecimal imaginaryToCompare = imaginary.setScale(PLACES_TO_ROUND, ROUNDING_MODE);
-        BigDecimal zeroToCompare = BigDecimal.ZERO.setScale(PLACES_TO_ROUND, ROUNDING_MODE);
+        return isWithinTolerance(imaginary);
+    }
 
-        return imaginaryToCompare.equals(zeroToCompare);
+    // Two comparisons against precomputed bounds, no rounding
+    static boolean isWithinTolerance(BigDecimal value) {
+        return value.compareTo(zeroTolerance) <= 0 && value.compareTo(negativeZeroTolerance) >= 0;
     }
 
     public boolean isZero() {
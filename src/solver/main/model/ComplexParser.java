@@ -0,0 +1,243 @@
+package solver.main.model;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * A hand-written, regex-free scanner for complex number tokens in a {@code char[]}.
+ * It accepts every form {@link Complex#parse(String)} has always accepted: {@code a}, {@code i}, {@code -i},
+ * {@code bi}, {@code a+bi}, {@code a-bi}, {@code a+i} and {@code a-i}, where {@code a} and {@code b}
+ * are decimal numbers, optionally with an exponent.
+ * <p>
+ * Call {@link #scan(char[], int, int)}, then read the parts as {@code double}s or {@link BigDecimal}s.
+ * The scanner keeps only offsets into the caller's array, so scanning allocates nothing.
+ * An instance is not thread-safe.
+ */
+public class ComplexParser {
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /** Decimal digits that always fit exactly in a double's 53-bit significand */
+    private static final int EXACT_DIGITS = 15;
+
+    private char[] chars;
+    private int realStart;
+    private int realEnd;
+    private int imaginaryStart;
+    private int imaginaryEnd;
+    private boolean imaginary;
+
+    /**
+     * Scan one token.
+     * @return {@code false} if the token is not a complex number
+     */
+    public boolean scan(char[] chars, int offset, int length) {
+        this.chars = chars;
+        int end = offset + length;
+
+        if (length == 0) {
+            return false;
+        }
+
+        imaginary = chars[end - 1] == 'i';
+
+        if (!imaginary) {
+            realStart = offset;
+            realEnd = end;
+            imaginaryStart = imaginaryEnd = end;
+
+            return isNumber(realStart, realEnd);
+        }
+
+        // Ends with "i": look for the sign that starts the imaginary part, skipping exponent signs
+        int bodyEnd = end - 1;
+        int split = -1;
+
+        for (int i = bodyEnd - 1; i > offset; i--) {
+            char c = chars[i];
+
+            if ((c == '+' || c == '-') && chars[i - 1] != 'e' && chars[i - 1] != 'E') {
+                split = i;
+                break;
+            }
+        }
+
+        if (split == -1) {
+            // imaginary only
+            realStart = realEnd = offset;
+            imaginaryStart = offset;
+        } else {
+            realStart = offset;
+            realEnd = split;
+            imaginaryStart = split;
+
+            if (!isNumber(realStart, realEnd)) {
+                return false;
+            }
+        }
+
+        imaginaryEnd = bodyEnd;
+
+        return isUnit(imaginaryStart, imaginaryEnd) || isNumber(imaginaryStart, imaginaryEnd);
+    }
+
+    public double realAsDouble() {
+        return realStart == realEnd ? 0 : toDouble(realStart, realEnd);
+    }
+
+    public double imaginaryAsDouble() {
+        if (!imaginary) {
+            return 0;
+        }
+
+        if (isUnit(imaginaryStart, imaginaryEnd)) {
+            return unitSign(imaginaryStart, imaginaryEnd);
+        }
+
+        return toDouble(imaginaryStart, imaginaryEnd);
+    }
+
+    public BigDecimal realAsBigDecimal(MathContext mathContext) {
+        return realStart == realEnd
+                ? BigDecimal.ZERO
+                : new BigDecimal(chars, realStart, realEnd - realStart, mathContext);
+    }
+
+    public BigDecimal imaginaryAsBigDecimal(MathContext mathContext) {
+        if (!imaginary) {
+            return BigDecimal.ZERO;
+        }
+
+        if (isUnit(imaginaryStart, imaginaryEnd)) {
+            return unitSign(imaginaryStart, imaginaryEnd) < 0 ? Complex.NEGATIVE_ONE.getReal() : BigDecimal.ONE;
+        }
+
+        return new BigDecimal(chars, imaginaryStart, imaginaryEnd - imaginaryStart, mathContext);
+    }
+
+    /** @return {@code true} if the last token scanned had an imaginary part */
+    public boolean hasImaginary() {
+        return imaginary;
+    }
+
+    // "", "+" or "-" in front of a bare "i"
+    private boolean isUnit(int start, int end) {
+        return start == end || (end - start == 1 && (chars[start] == '+' || chars[start] == '-'));
+    }
+
+    private int unitSign(int start, int end) {
+        return start < end && chars[start] == '-' ? -1 : 1;
+    }
+
+    // [+-]? digits* (. digits*)? ([eE] [+-]? digits+)?, with at least one mantissa digit
+    private boolean isNumber(int start, int end) {
+        int i = start;
+
+        if (i < end && (chars[i] == '+' || chars[i] == '-')) {
+            i++;
+        }
+
+        int digits = 0;
+
+        while (i < end && isDigit(chars[i])) {
+            i++;
+            digits++;
+        }
+
+        if (i < end && chars[i] == '.') {
+            i++;
+
+            while (i < end && isDigit(chars[i])) {
+                i++;
+                digits++;
+            }
+        }
+
+        if (digits == 0) {
+            return false;
+        }
+
+        if (i < end && (chars[i] == 'e' || chars[i] == 'E')) {
+            i++;
+
+            if (i < end && (chars[i] == '+' || chars[i] == '-')) {
+                i++;
+            }
+
+            int exponentDigits = 0;
+
+            while (i < end && isDigit(chars[i])) {
+                i++;
+                exponentDigits++;
+            }
+
+            if (exponentDigits == 0) {
+                return false;
+            }
+        }
+
+        return i == end;
+    }
+
+    /*
+     * Exact fast path: with at most 15 significant digits and a power of ten up to 22, both the
+     * digits and the power are exact doubles, so one multiply or divide gives the correctly
+     * rounded result.  Anything else goes through Double.parseDouble.
+     */
+    private double toDouble(int start, int end) {
+        int i = start;
+        boolean negative = false;
+
+        if (chars[i] == '+' || chars[i] == '-') {
+            negative = chars[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean exact = true;
+
+        for (; i < end && chars[i] != 'e' && chars[i] != 'E'; i++) {
+            char c = chars[i];
+
+            if (c == '.') {
+                for (i++; i < end && isDigit(chars[i]); i++) {
+                    if (mantissa == 0 && chars[i] == '0') {
+                        exponent--;
+                        continue;
+                    }
+
+                    mantissa = mantissa * 10 + (chars[i] - '0');
+                    exponent--;
+                    exact &= ++digits <= EXACT_DIGITS;
+                }
+
+                break;
+            }
+
+            if (mantissa != 0 || c != '0') {
+                mantissa = mantissa * 10 + (c - '0');
+                exact &= ++digits <= EXACT_DIGITS;
+            }
+        }
+
+        if (i < end && (chars[i] == 'e' || chars[i] == 'E')) {
+            exact = false;
+        }
+
+        if (!exact || Math.abs(exponent) >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(new String(chars, start, end - start));
+        }
+
+        double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+
+        return negative ? -value : value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
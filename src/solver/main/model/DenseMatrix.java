@@ -0,0 +1,255 @@
+package solver.main.model;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * A {@link Matrix} stored in two flat, row-major {@code double} arrays, one for the
+ * real parts and one for the imaginary parts.  Element (row, column) lives at
+ * {@code row * lineLength + column} in both arrays.
+ * <p>
+ * The imaginary array is only allocated when the first non-zero imaginary part is stored, so a real
+ * system, the usual case, takes half the memory and its row operations touch only the real parts.
+ */
+public class DenseMatrix implements DoubleMatrix {
+    private final int size;
+    private final int lineLength;
+    private final double[] real;
+    private double[] imaginary;
+    private int rowsAdded = 0;
+
+    /**
+     * Create a zero-filled matrix.  Rows may then be filled in order with {@link #add(MatrixRow)}
+     * or one element at a time with {@link #setCoefficient(int, int, Complex)}.
+     * @param size the number of rows (equations)
+     * @param lineLength the number of columns, including the constant column
+     */
+    public DenseMatrix(int size, int lineLength) {
+        this.size = size;
+        this.lineLength = lineLength;
+        real = new double[size * lineLength];
+    }
+
+    /**
+     * Copy any other matrix into dense storage.
+     * @param other the matrix to copy
+     */
+    public DenseMatrix(Matrix other) {
+        this(other.getSize(), Math.max(other.getLineLength(), 0));
+
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < lineLength; column++) {
+                setCoefficient(row, column, other.getCoefficient(row, column));
+            }
+        }
+
+        rowsAdded = size;
+    }
+
+    @Override
+    public void add(MatrixRow row) {
+        if (rowsAdded >= size) {
+            System.err.println("Cannot add row, matrix is full");
+            return;
+        }
+
+        if (row.getSize() != lineLength) {
+            System.err.println("Cannot add row, line length is wrong");
+            return;
+        }
+
+        for (int column = 0; column < lineLength; column++) {
+            setCoefficient(rowsAdded, column, row.getColumn(column));
+        }
+
+        rowsAdded++;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public int getLineLength() {
+        return size == 0 ? -1 : lineLength;
+    }
+
+    @Override
+    public long estimateHeapBytes() {
+        return (long) (real.length + (imaginary == null ? 0 : imaginary.length)) * Double.BYTES;
+    }
+
+    private void allocateImaginary() {
+        if (imaginary == null) {
+            imaginary = new double[real.length];
+        }
+    }
+
+    @Override
+    public Complex getCoefficient(int row, int column) {
+        if (row < 0 || row >= size) {
+            Exception e = new RuntimeException(
+                    String.format("DenseMatrix::getCoefficient(): Row is out of range (%d)", row));
+            e.printStackTrace();
+
+            return Complex.NaN;
+        }
+
+        if (column < 0 || column >= lineLength) {
+            Exception e = new RuntimeException(
+                    String.format("DenseMatrix::getCoefficient(): Column is out of range (%d)", column));
+            e.printStackTrace();
+
+            return Complex.NaN;
+        }
+
+        int index = row * lineLength + column;
+
+        return imaginary == null ? new Complex(real[index]) : new Complex(real[index], imaginary[index]);
+    }
+
+    @Override
+    public void setCoefficient(int row, int column, Complex value) {
+        if (row < 0 || row >= size || column < 0 || column >= lineLength) {
+            System.err.println("DenseMatrix::setCoefficient(): Index out of range");
+            return;
+        }
+
+        setCoefficient(row, column, value.getReal().doubleValue(), value.getImaginary().doubleValue());
+    }
+
+    @Override
+    public double getRealPart(int row, int column) {
+        return real[row * lineLength + column];
+    }
+
+    @Override
+    public double getImaginaryPart(int row, int column) {
+        return imaginary == null ? 0 : imaginary[row * lineLength + column];
+    }
+
+    @Override
+    public void setCoefficient(int row, int column, double realPart, double imaginaryPart) {
+        int index = row * lineLength + column;
+        real[index] = realPart;
+
+        if (imaginaryPart != 0) {
+            allocateImaginary();
+        }
+
+        if (imaginary != null) {
+            imaginary[index] = imaginaryPart;
+        }
+    }
+
+    @Override
+    public void zeroTarget(int sourceIndex, int targetIndex, Complex multiplier, int startColumn) {
+        double multiplierReal = multiplier.getReal().doubleValue();
+        double multiplierImaginary = multiplier.getImaginary().doubleValue();
+        int start = Math.max(startColumn, 0);
+
+        if (imaginary == null && multiplierImaginary == 0) {
+            RowKernels.axpy(multiplierReal, real, sourceIndex * lineLength + start,
+                    real, targetIndex * lineLength + start, lineLength - start);
+            return;
+        }
+
+        allocateImaginary();
+        RowKernels.complexAxpy(multiplierReal, multiplierImaginary, real, imaginary, sourceIndex * lineLength + start,
+                real, imaginary, targetIndex * lineLength + start, lineLength - start);
+    }
+
+    @Override
+    public void multiplyRow(int index, Complex multiplier) {
+        double multiplierReal = multiplier.getReal().doubleValue();
+        double multiplierImaginary = multiplier.getImaginary().doubleValue();
+
+        if (imaginary == null && multiplierImaginary == 0) {
+            for (int i = index * lineLength; i < (index + 1) * lineLength; i++) {
+                real[i] *= multiplierReal;
+            }
+
+            return;
+        }
+
+        allocateImaginary();
+        RowKernels.complexScale(multiplierReal, multiplierImaginary, real, imaginary, index * lineLength, lineLength);
+    }
+
+    @Override
+    public void swap(Swap swap) {
+        if (swap.isEmpty()) {
+            return;
+        }
+
+        int rowFrom = swap.getRowFrom();
+        int colFrom = swap.getColFrom();
+        int rowTo = swap.getRowTo();
+        int colTo = swap.getColTo();
+
+        // Whole rows, then whole columns
+        if (rowFrom != rowTo) {
+            for (int column = 0; column < lineLength; column++) {
+                swapElements(rowTo * lineLength + column, rowFrom * lineLength + column);
+            }
+        }
+
+        if (colFrom != colTo) {
+            for (int row = 0; row < size; row++) {
+                swapElements(row * lineLength + colTo, row * lineLength + colFrom);
+            }
+        }
+    }
+
+    private void swapElements(int first, int second) {
+        double tempReal = real[first];
+        real[first] = real[second];
+        real[second] = tempReal;
+
+        if (imaginary != null) {
+            double tempImaginary = imaginary[first];
+            imaginary[first] = imaginary[second];
+            imaginary[second] = tempImaginary;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DenseMatrix other = (DenseMatrix) o;
+        return size == other.size
+                && lineLength == other.lineLength
+                && Arrays.equals(real, other.real)
+                && Arrays.equals(imaginaryOrZeros(), other.imaginaryOrZeros());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(size, lineLength, Arrays.hashCode(real), Arrays.hashCode(imaginaryOrZeros()));
+    }
+
+    // A real matrix equals one that stores zero imaginary parts
+    private double[] imaginaryOrZeros() {
+        return imaginary == null ? new double[real.length] : imaginary;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner rows = new StringJoiner("\n");
+
+        for (int row = 0; row < size; row++) {
+            StringJoiner columns = new StringJoiner(" ");
+
+            for (int column = 0; column < lineLength; column++) {
+                columns.add(getCoefficient(row, column).toString());
+            }
+
+            rows.add(columns.toString());
+        }
+
+        return rows.toString();
+    }
+}
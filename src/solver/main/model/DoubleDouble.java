@@ -0,0 +1,61 @@
+package solver.main.model;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * A mutable double-double number: the unevaluated sum {@code hi + lo} of two doubles, good for
+ * about 32 significant digits.  Instances are scratch registers, reused across a loop so the
+ * arithmetic allocates nothing.
+ */
+public final class DoubleDouble {
+    private double hi;
+    private double lo;
+
+    public double hi() {
+        return hi;
+    }
+
+    public double lo() {
+        return lo;
+    }
+
+    public DoubleDouble set(double hi, double lo) {
+        this.hi = hi;
+        this.lo = lo;
+        return this;
+    }
+
+    /** Round a BigDecimal to the nearest double-double */
+    public DoubleDouble set(BigDecimal value) {
+        hi = value.doubleValue();
+        lo = Double.isFinite(hi) ? value.subtract(new BigDecimal(hi)).doubleValue() : 0;
+        return this;
+    }
+
+    /** this += (hi, lo) */
+    public DoubleDouble add(double otherHi, double otherLo) {
+        double sum = hi + otherHi;
+        double virtual = sum - hi;
+        double error = (hi - (sum - virtual)) + (otherHi - virtual);
+        error += lo + otherLo;
+        hi = sum + error;
+        lo = error - (hi - sum);
+        return this;
+    }
+
+    /** this *= (hi, lo) */
+    public DoubleDouble multiply(double otherHi, double otherLo) {
+        double product = hi * otherHi;
+        double error = Math.fma(hi, otherHi, -product);
+        error += hi * otherLo + lo * otherHi;
+        hi = product + error;
+        lo = error - (hi - product);
+        return this;
+    }
+
+    /** @return the value as a BigDecimal of 34 significant digits, which holds every digit it has */
+    public static BigDecimal toBigDecimal(double hi, double lo) {
+        return new BigDecimal(hi).add(new BigDecimal(lo), MathContext.DECIMAL128);
+    }
+}
@@ -0,0 +1,290 @@
+package solver.main.model;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * A {@link Matrix} in double-double precision, about 32 significant digits.  Like
+ * {@link DenseMatrix} it is row-major and split into real and imaginary arrays, but each part is
+ * held as a high and a low double, so there are four flat arrays.  Row operations run in
+ * double-double arithmetic through a few reused {@link DoubleDouble} registers.  As there, the
+ * imaginary arrays wait for the first non-zero imaginary part, so a real system keeps only two.
+ */
+public class DoubleDoubleMatrix implements Matrix {
+    private final int size;
+    private final int lineLength;
+    private final double[] realHi;
+    private final double[] realLo;
+    private double[] imaginaryHi;
+    private double[] imaginaryLo;
+    private int rowsAdded = 0;
+
+    /**
+     * Create a zero-filled matrix.
+     * @param size the number of rows (equations)
+     * @param lineLength the number of columns, including the constant column
+     */
+    public DoubleDoubleMatrix(int size, int lineLength) {
+        this.size = size;
+        this.lineLength = lineLength;
+        realHi = new double[size * lineLength];
+        realLo = new double[size * lineLength];
+    }
+
+    @Override
+    public void add(MatrixRow row) {
+        if (rowsAdded >= size) {
+            System.err.println("Cannot add row, matrix is full");
+            return;
+        }
+
+        if (row.getSize() != lineLength) {
+            System.err.println("Cannot add row, line length is wrong");
+            return;
+        }
+
+        for (int column = 0; column < lineLength; column++) {
+            setCoefficient(rowsAdded, column, row.getColumn(column));
+        }
+
+        rowsAdded++;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public int getLineLength() {
+        return size == 0 ? -1 : lineLength;
+    }
+
+    @Override
+    public long estimateHeapBytes() {
+        return (long) (realHi.length + realLo.length) * (imaginaryHi == null ? 1 : 2) * Double.BYTES;
+    }
+
+    private void allocateImaginary() {
+        if (imaginaryHi == null) {
+            imaginaryHi = new double[realHi.length];
+            imaginaryLo = new double[realHi.length];
+        }
+    }
+
+    @Override
+    public Complex getCoefficient(int row, int column) {
+        if (row < 0 || row >= size || column < 0 || column >= lineLength) {
+            Exception e = new RuntimeException(String.format(
+                    "DoubleDoubleMatrix::getCoefficient(): Index is out of range (%d, %d)", row, column));
+            e.printStackTrace();
+
+            return Complex.NaN;
+        }
+
+        int index = row * lineLength + column;
+        BigDecimal realPart = DoubleDouble.toBigDecimal(realHi[index], realLo[index]);
+
+        return imaginaryHi == null
+                ? new Complex(realPart)
+                : new Complex(realPart, DoubleDouble.toBigDecimal(imaginaryHi[index], imaginaryLo[index]));
+    }
+
+    @Override
+    public void setCoefficient(int row, int column, Complex value) {
+        if (row < 0 || row >= size || column < 0 || column >= lineLength) {
+            System.err.println("DoubleDoubleMatrix::setCoefficient(): Index out of range");
+            return;
+        }
+
+        int index = row * lineLength + column;
+        DoubleDouble part = new DoubleDouble().set(value.getReal());
+        realHi[index] = part.hi();
+        realLo[index] = part.lo();
+
+        if (value.getImaginary().signum() != 0) {
+            allocateImaginary();
+        }
+
+        if (imaginaryHi != null) {
+            part.set(value.getImaginary());
+            imaginaryHi[index] = part.hi();
+            imaginaryLo[index] = part.lo();
+        }
+    }
+
+    @Override
+    public void zeroTarget(int sourceIndex, int targetIndex, Complex multiplier, int startColumn) {
+        DoubleDouble multiplierReal = new DoubleDouble().set(multiplier.getReal());
+        DoubleDouble multiplierImaginary = new DoubleDouble().set(multiplier.getImaginary());
+        boolean realMultiplier = multiplierImaginary.hi() == 0;
+        boolean realRows = imaginaryHi == null && realMultiplier;
+        DoubleDouble sum = new DoubleDouble();
+        DoubleDouble product = new DoubleDouble();
+        int source = sourceIndex * lineLength;
+        int target = targetIndex * lineLength;
+
+        if (!realRows) {
+            allocateImaginary();
+        }
+
+        for (int column = startColumn; column < lineLength; column++) {
+            int s = source + column;
+            int t = target + column;
+
+            // real: target + multiplier.real * source.real - multiplier.imaginary * source.imaginary
+            sum.set(realHi[s], realLo[s]).multiply(multiplierReal.hi(), multiplierReal.lo());
+
+            if (!realMultiplier) {
+                product.set(imaginaryHi[s], imaginaryLo[s]).multiply(multiplierImaginary.hi(), multiplierImaginary.lo());
+                sum.add(-product.hi(), -product.lo());
+            }
+
+            sum.add(realHi[t], realLo[t]);
+            realHi[t] = sum.hi();
+            realLo[t] = sum.lo();
+
+            if (realRows) {
+                continue;
+            }
+
+            // imaginary: target + multiplier.real * source.imaginary + multiplier.imaginary * source.real
+            sum.set(imaginaryHi[s], imaginaryLo[s]).multiply(multiplierReal.hi(), multiplierReal.lo());
+
+            if (!realMultiplier) {
+                product.set(realHi[s], realLo[s]).multiply(multiplierImaginary.hi(), multiplierImaginary.lo());
+                sum.add(product.hi(), product.lo());
+            }
+
+            sum.add(imaginaryHi[t], imaginaryLo[t]);
+            imaginaryHi[t] = sum.hi();
+            imaginaryLo[t] = sum.lo();
+        }
+    }
+
+    @Override
+    public void multiplyRow(int index, Complex multiplier) {
+        DoubleDouble multiplierReal = new DoubleDouble().set(multiplier.getReal());
+        DoubleDouble multiplierImaginary = new DoubleDouble().set(multiplier.getImaginary());
+
+        if (imaginaryHi == null && multiplierImaginary.hi() == 0) {
+            multiplyRealRow(index, multiplierReal);
+            return;
+        }
+
+        allocateImaginary();
+        DoubleDouble newReal = new DoubleDouble();
+        DoubleDouble newImaginary = new DoubleDouble();
+        DoubleDouble product = new DoubleDouble();
+        int start = index * lineLength;
+
+        for (int i = start; i < start + lineLength; i++) {
+            newReal.set(realHi[i], realLo[i]).multiply(multiplierReal.hi(), multiplierReal.lo());
+            product.set(imaginaryHi[i], imaginaryLo[i]).multiply(multiplierImaginary.hi(), multiplierImaginary.lo());
+            newReal.add(-product.hi(), -product.lo());
+
+            newImaginary.set(imaginaryHi[i], imaginaryLo[i]).multiply(multiplierReal.hi(), multiplierReal.lo());
+            product.set(realHi[i], realLo[i]).multiply(multiplierImaginary.hi(), multiplierImaginary.lo());
+            newImaginary.add(product.hi(), product.lo());
+
+            realHi[i] = newReal.hi();
+            realLo[i] = newReal.lo();
+            imaginaryHi[i] = newImaginary.hi();
+            imaginaryLo[i] = newImaginary.lo();
+        }
+    }
+
+    private void multiplyRealRow(int index, DoubleDouble multiplier) {
+        DoubleDouble product = new DoubleDouble();
+
+        for (int i = index * lineLength; i < (index + 1) * lineLength; i++) {
+            product.set(realHi[i], realLo[i]).multiply(multiplier.hi(), multiplier.lo());
+            realHi[i] = product.hi();
+            realLo[i] = product.lo();
+        }
+    }
+
+    @Override
+    public void swap(Swap swap) {
+        if (swap.isEmpty()) {
+            return;
+        }
+
+        int rowFrom = swap.getRowFrom();
+        int colFrom = swap.getColFrom();
+        int rowTo = swap.getRowTo();
+        int colTo = swap.getColTo();
+
+        // Whole rows, then whole columns
+        if (rowFrom != rowTo) {
+            for (int column = 0; column < lineLength; column++) {
+                swapElements(rowTo * lineLength + column, rowFrom * lineLength + column);
+            }
+        }
+
+        if (colFrom != colTo) {
+            for (int row = 0; row < size; row++) {
+                swapElements(row * lineLength + colTo, row * lineLength + colFrom);
+            }
+        }
+    }
+
+    private void swapElements(int first, int second) {
+        swap(realHi, first, second);
+        swap(realLo, first, second);
+
+        if (imaginaryHi != null) {
+            swap(imaginaryHi, first, second);
+            swap(imaginaryLo, first, second);
+        }
+    }
+
+    private static void swap(double[] array, int first, int second) {
+        double temp = array[first];
+        array[first] = array[second];
+        array[second] = temp;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DoubleDoubleMatrix other = (DoubleDoubleMatrix) o;
+        return size == other.size
+                && lineLength == other.lineLength
+                && Arrays.equals(realHi, other.realHi)
+                && Arrays.equals(realLo, other.realLo)
+                && Arrays.equals(orZeros(imaginaryHi), other.orZeros(other.imaginaryHi))
+                && Arrays.equals(orZeros(imaginaryLo), other.orZeros(other.imaginaryLo));
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(size, lineLength, Arrays.hashCode(realHi), Arrays.hashCode(realLo),
+                Arrays.hashCode(orZeros(imaginaryHi)), Arrays.hashCode(orZeros(imaginaryLo)));
+    }
+
+    // A real matrix equals one that stores zero imaginary parts
+    private double[] orZeros(double[] imaginaryPart) {
+        return imaginaryPart == null ? new double[realHi.length] : imaginaryPart;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner rows = new StringJoiner("\n");
+
+        for (int row = 0; row < size; row++) {
+            StringJoiner columns = new StringJoiner(" ");
+
+            for (int column = 0; column < lineLength; column++) {
+                columns.add(getCoefficient(row, column).toString());
+            }
+
+            rows.add(columns.toString());
+        }
+
+        return rows.toString();
+    }
+}
@@ -0,0 +1,24 @@
+package solver.main.model;
+
+/**
+ * A {@link Matrix} that holds each element as a pair of {@code double}s, so its elements can be
+ * read and written without building a {@link Complex}.
+ */
+public interface DoubleMatrix extends Matrix {
+
+    /** @return the real part of an element */
+    double getRealPart(int row, int column);
+
+    /** @return the imaginary part of an element */
+    double getImaginaryPart(int row, int column);
+
+    void setCoefficient(int row, int column, double realPart, double imaginaryPart);
+
+    @Override
+    default boolean isZero(int row, int column) {
+        double tolerance = Complex.getDoubleZeroTolerance();
+
+        return Math.abs(getRealPart(row, column)) <= tolerance
+                && Math.abs(getImaginaryPart(row, column)) <= tolerance;
+    }
+}
@@ -0,0 +1,26 @@
+package solver.main.model;
+
+/**
+ * The inner loops of the {@code double} storage and solvers, on split real and imaginary arrays.
+ * {@link RowKernels} picks the implementation.
+ */
+interface Kernels {
+
+    /** y[yOffset + i] += a * x[xOffset + i] */
+    void axpy(double a, double[] x, int xOffset, double[] y, int yOffset, int length);
+
+    /** y[yOffset + i] += a * x[xOffset + i], in complex arithmetic */
+    void complexAxpy(double aReal, double aImaginary, double[] xReal, double[] xImaginary, int xOffset,
+                     double[] yReal, double[] yImaginary, int yOffset, int length);
+
+    /** x[offset + i] *= a, in complex arithmetic */
+    void complexScale(double aReal, double aImaginary, double[] xReal, double[] xImaginary, int offset, int length);
+
+    /** sum -= (the sum of a[aOffset + i] * b[bOffset + i]), in complex arithmetic; sum is {real, imaginary} */
+    void subtractDot(double[] aReal, double[] aImaginary, int aOffset, double[] bReal, double[] bImaginary,
+                     int bOffset, int length, double[] sum);
+
+    /** As {@link #subtractDot}, with each b conjugated */
+    void subtractConjugateDot(double[] aReal, double[] aImaginary, int aOffset, double[] bReal, double[] bImaginary,
+                              int bOffset, int length, double[] sum);
+}
@@ -0,0 +1,34 @@
+package solver.main.model;
+
+/**
+ * A system of linear equations as read from input: the augmented matrix plus the
+ * counts needed to tell coefficient columns from constant columns.
+ */
+public class LinearSystem {
+    private final Matrix matrix;
+    private final int numberOfVariables;
+    private final int rightHandSides;
+
+    public LinearSystem(Matrix matrix, int numberOfVariables, int rightHandSides) {
+        this.matrix = matrix;
+        this.numberOfVariables = numberOfVariables;
+        this.rightHandSides = rightHandSides;
+    }
+
+    public Matrix getMatrix() {
+        return matrix;
+    }
+
+    public int getNumberOfVariables() {
+        return numberOfVariables;
+    }
+
+    public int getNumberOfEquations() {
+        return matrix.getSize();
+    }
+
+    /** @return the number of constant columns; more than one means {@code AX = B} */
+    public int getRightHandSides() {
+        return rightHandSides;
+    }
+}
@@ -0,0 +1,308 @@
+package solver.main.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * A {@link Matrix} whose elements stay in a file, mapped into memory, so it costs nothing to load and
+ * only the pages it touches are ever read.  Elements are little-endian {@code double}s, row-major,
+ * either the real part alone or the real and imaginary parts side by side.
+ * <p>
+ * The mapping is private: the solver changes the matrix in place, and the pages it writes are copied
+ * rather than written back, so the file is never changed.  A file that may only be read can't be
+ * mapped that way, so it is copied into memory instead, which still saves parsing it.  One mapping
+ * can't exceed 2 GB, so the rows are mapped in chunks.  In a file of real numbers the imaginary parts
+ * are zero until a row is given one, and then that row's imaginary parts are kept on the heap.
+ */
+public class MappedMatrix implements DoubleMatrix {
+    private static final long MAX_CHUNK_BYTES = 1L << 30;
+
+    private final int size;
+    private final int lineLength;
+    private final boolean complex;
+    private final int stride;
+    private final int rowsPerChunk;
+    private final DoubleBuffer[] chunks;
+    private double[][] imaginaryRows;
+
+    /**
+     * Map the elements of a matrix stored in a file.
+     * @param channel the file, open for reading, and for writing too if it may be mapped privately; it may
+     *                be closed once this returns
+     * @param offset where the first element starts in the file
+     * @param size the number of rows (equations)
+     * @param lineLength the number of columns, including the constant columns
+     * @param complex whether each element holds an imaginary part after the real part
+     */
+    public MappedMatrix(FileChannel channel, long offset, int size, int lineLength, boolean complex)
+            throws IOException {
+        this.size = size;
+        this.lineLength = lineLength;
+        this.complex = complex;
+        stride = complex ? 2 : 1;
+        long rowBytes = (long) lineLength * stride * Double.BYTES;
+        rowsPerChunk = (int) Math.max(1, Math.min(size, MAX_CHUNK_BYTES / Math.max(1, rowBytes)));
+        chunks = new DoubleBuffer[(size + rowsPerChunk - 1) / rowsPerChunk];
+
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            int rows = Math.min(rowsPerChunk, size - chunk * rowsPerChunk);
+            chunks[chunk] = map(channel, offset + chunk * rowsPerChunk * rowBytes, rows * rowBytes)
+                    .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+    }
+
+    // A private mapping needs a channel open for writing; a file we may only read is copied instead
+    private static ByteBuffer map(FileChannel channel, long position, long length) throws IOException {
+        try {
+            return channel.map(FileChannel.MapMode.PRIVATE, position, length);
+        } catch (NonWritableChannelException e) {
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+            return ByteBuffer.allocate(mapped.capacity()).put(mapped).flip();
+        }
+    }
+
+    @Override
+    public void add(MatrixRow row) {
+        System.err.println("Cannot add row, a mapped matrix is filled from its file");
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public int getLineLength() {
+        return size == 0 ? -1 : lineLength;
+    }
+
+    @Override
+    public Complex getCoefficient(int row, int column) {
+        if (row < 0 || row >= size || column < 0 || column >= lineLength) {
+            Exception e = new RuntimeException(String.format(
+                    "MappedMatrix::getCoefficient(): Index is out of range (%d, %d)", row, column));
+            e.printStackTrace();
+
+            return Complex.NaN;
+        }
+
+        return new Complex(getRealPart(row, column), getImaginaryPart(row, column));
+    }
+
+    @Override
+    public void setCoefficient(int row, int column, Complex value) {
+        if (row < 0 || row >= size || column < 0 || column >= lineLength) {
+            System.err.println("MappedMatrix::setCoefficient(): Index out of range");
+            return;
+        }
+
+        setCoefficient(row, column, value.getReal().doubleValue(), value.getImaginary().doubleValue());
+    }
+
+    @Override
+    public double getRealPart(int row, int column) {
+        return chunks[row / rowsPerChunk].get(index(row, column));
+    }
+
+    @Override
+    public double getImaginaryPart(int row, int column) {
+        if (complex) {
+            return chunks[row / rowsPerChunk].get(index(row, column) + 1);
+        }
+
+        double[] imaginary = imaginaryRows == null ? null : imaginaryRows[row];
+
+        return imaginary == null ? 0 : imaginary[column];
+    }
+
+    @Override
+    public void setCoefficient(int row, int column, double realPart, double imaginaryPart) {
+        DoubleBuffer chunk = chunks[row / rowsPerChunk];
+        int index = index(row, column);
+        chunk.put(index, realPart);
+
+        if (complex) {
+            chunk.put(index + 1, imaginaryPart);
+        } else if (imaginaryPart != 0 || getImaginaryPart(row, column) != 0) {
+            imaginaryRow(row)[column] = imaginaryPart;
+        }
+    }
+
+    private int index(int row, int column) {
+        return ((row % rowsPerChunk) * lineLength + column) * stride;
+    }
+
+    private double[] imaginaryRow(int row) {
+        if (imaginaryRows == null) {
+            imaginaryRows = new double[size][];
+        }
+
+        if (imaginaryRows[row] == null) {
+            imaginaryRows[row] = new double[lineLength];
+        }
+
+        return imaginaryRows[row];
+    }
+
+    // The mapped pages belong to the file, or to the page cache once written; only the imaginary rows are heap
+    @Override
+    public long estimateHeapBytes() {
+        long bytes = 0;
+
+        for (DoubleBuffer chunk : chunks) {
+            if (!chunk.isDirect()) {
+                bytes += (long) chunk.capacity() * Double.BYTES;
+            }
+        }
+
+        if (imaginaryRows != null) {
+            for (double[] row : imaginaryRows) {
+                bytes += row == null ? 0 : (long) row.length * Double.BYTES;
+            }
+        }
+
+        return bytes;
+    }
+
+    /** @return whether any element of the row may have an imaginary part */
+    private boolean mayBeComplex(int row) {
+        return complex || imaginaryRows != null && imaginaryRows[row] != null;
+    }
+
+    @Override
+    public void zeroTarget(int sourceIndex, int targetIndex, Complex multiplier, int startColumn) {
+        double multiplierReal = multiplier.getReal().doubleValue();
+        double multiplierImaginary = multiplier.getImaginary().doubleValue();
+
+        // Real rows and a real multiplier never need the imaginary parts
+        if (multiplierImaginary == 0 && !mayBeComplex(sourceIndex) && !mayBeComplex(targetIndex)) {
+            DoubleBuffer source = chunks[sourceIndex / rowsPerChunk];
+            DoubleBuffer target = chunks[targetIndex / rowsPerChunk];
+            int sourceStart = index(sourceIndex, 0);
+            int targetStart = index(targetIndex, 0);
+
+            for (int column = startColumn; column < lineLength; column++) {
+                target.put(targetStart + column,
+                        target.get(targetStart + column) + multiplierReal * source.get(sourceStart + column));
+            }
+
+            return;
+        }
+
+        for (int column = startColumn; column < lineLength; column++) {
+            double sourceReal = getRealPart(sourceIndex, column);
+            double sourceImaginary = getImaginaryPart(sourceIndex, column);
+            setCoefficient(targetIndex, column,
+                    getRealPart(targetIndex, column) + multiplierReal * sourceReal
+                            - multiplierImaginary * sourceImaginary,
+                    getImaginaryPart(targetIndex, column) + multiplierReal * sourceImaginary
+                            + multiplierImaginary * sourceReal);
+        }
+    }
+
+    @Override
+    public void multiplyRow(int index, Complex multiplier) {
+        double multiplierReal = multiplier.getReal().doubleValue();
+        double multiplierImaginary = multiplier.getImaginary().doubleValue();
+
+        for (int column = 0; column < lineLength; column++) {
+            double oldReal = getRealPart(index, column);
+            double oldImaginary = getImaginaryPart(index, column);
+            setCoefficient(index, column, oldReal * multiplierReal - oldImaginary * multiplierImaginary,
+                    oldReal * multiplierImaginary + oldImaginary * multiplierReal);
+        }
+    }
+
+    @Override
+    public void swap(Swap swap) {
+        if (swap.isEmpty()) {
+            return;
+        }
+
+        int rowFrom = swap.getRowFrom();
+        int colFrom = swap.getColFrom();
+        int rowTo = swap.getRowTo();
+        int colTo = swap.getColTo();
+
+        // Whole rows, then whole columns
+        if (rowFrom != rowTo) {
+            for (int column = 0; column < lineLength; column++) {
+                swapElements(rowTo, column, rowFrom, column);
+            }
+        }
+
+        if (colFrom != colTo) {
+            for (int row = 0; row < size; row++) {
+                swapElements(row, colTo, row, colFrom);
+            }
+        }
+    }
+
+    private void swapElements(int firstRow, int firstColumn, int secondRow, int secondColumn) {
+        double tempReal = getRealPart(firstRow, firstColumn);
+        double tempImaginary = getImaginaryPart(firstRow, firstColumn);
+        setCoefficient(firstRow, firstColumn, getRealPart(secondRow, secondColumn),
+                getImaginaryPart(secondRow, secondColumn));
+        setCoefficient(secondRow, secondColumn, tempReal, tempImaginary);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MappedMatrix other = (MappedMatrix) o;
+
+        if (size != other.size || lineLength != other.lineLength) {
+            return false;
+        }
+
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < lineLength; column++) {
+                if (Double.compare(getRealPart(row, column), other.getRealPart(row, column)) != 0
+                        || Double.compare(getImaginaryPart(row, column), other.getImaginaryPart(row, column)) != 0) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(size, lineLength);
+
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < lineLength; column++) {
+                result = 31 * result + Double.hashCode(getRealPart(row, column));
+                result = 31 * result + Double.hashCode(getImaginaryPart(row, column));
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner rows = new StringJoiner("\n");
+
+        for (int row = 0; row < size; row++) {
+            StringJoiner columns = new StringJoiner(" ");
+
+            for (int column = 0; column < lineLength; column++) {
+                columns.add(getCoefficient(row, column).toString());
+            }
+
+            rows.add(columns.toString());
+        }
+
+        return rows.toString();
+    }
+}
@@ -1,85 +1,51 @@
 package solver.main.model;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-
-public class Matrix {
-    private final List<MatrixRow> matrix;
-    private int lineLength = -1;
-
-    public Matrix() {
-        matrix = new ArrayList<>();
-    }
-
-    public Matrix(List<MatrixRow> matrix) {
-        this.matrix = matrix;
-    }
+/**
+ * An augmented matrix: rows of coefficients with the constant in the last column.
+ * The solver only talks to this interface, so the storage behind it can be
+ * a list of {@link MatrixRow}s or flat primitive arrays.
+ */
+public interface Matrix {
 
     /**
-     * Creates a multiplier that when multiplied by the source and added
-     * to the target number, will zero the target.
-     * @param source the source number
-     * @param target the target number
-     * @return a multiplier
+     * Append a row to the matrix.  All rows must have the same length.
+     * @param row the row to add
      */
-    public static Complex createMultiplier(Complex source, Complex target) {
-        return target.negate().divide(source);
-    }
+    void add(MatrixRow row);
 
-    public void add(MatrixRow row) {
-        if (lineLength == -1) {
-            lineLength = row.getSize();
-        } else if (lineLength != row.getSize()) {
-            System.err.println("Cannot add row, line length is wrong");
-            return;
-        }
-
-        matrix.add(row);
-    }
-
-    public int getSize() {
-        return matrix.size();
-    }
+    /** @return the number of rows (equations) */
+    int getSize();
 
     /** -1 when matrix is empty */
-    public int getLineLength() {
-        return lineLength;
-    }
+    int getLineLength();
 
-    public List<MatrixRow> getMatrix() {
-        return matrix;
-    }
+    Complex getCoefficient(int row, int column);
 
-    public MatrixRow getMatrixRow(int index) {
-        if (index < 0 || index >= matrix.size()) {
-            System.err.println("Matrix::getMatrixRow: Row index out of range");
+    void setCoefficient(int row, int column, Complex value);
 
-            return null;
-        }
-
-        return matrix.get(index);
+    /**
+     * Check an element against the zero tolerance.  Storage that holds primitives should override this,
+     * so the searches for pivots need not build a {@link Complex} for every element they pass.
+     */
+    default boolean isZero(int row, int column) {
+        return getCoefficient(row, column).isZero();
     }
 
-    public Complex getCoefficient(int row, int column) {
-        if (row < 0 || row >= getSize()) {
-            Exception e = new RuntimeException(
-                    String.format("Matrix::getCoefficient(): Row is out of range (%d)", row));
-            e.printStackTrace();
-
-            return Complex.NaN;
-        }
-
-        if (column < 0 || column >= getLineLength()) {
-            Exception e = new RuntimeException(
-                    String.format("Matrix::getCoefficient(): Column is out of range (%d)", column));
-            e.printStackTrace();
+    /**
+     * Find the first non-zero element of a row at or right of a column.  Storage that knows where
+     * its zeros are should override this, so callers can skip them instead of testing each one.
+     * @param row the row to search
+     * @param fromColumn the first column to look at
+     * @return the column of the non-zero element, or the line length if there is none
+     */
+    default int nextNonZeroColumn(int row, int fromColumn) {
+        int column = fromColumn;
 
-            return Complex.NaN;
+        while (column < getLineLength() && isZero(row, column)) {
+            column++;
         }
 
-        return matrix.get(row).getColumn(column);
+        return column;
     }
 
     /**
@@ -89,76 +55,38 @@ public class Matrix {
      * @param targetIndex index to the target row in the Matrix
      * @param multiplier number to multiply the source row by
      */
-    public void zeroTarget(int sourceIndex, int targetIndex, Complex multiplier) {
-        MatrixRow multipliedSourceRow = matrix.get(sourceIndex).multiply(multiplier);
-        matrix.set(targetIndex, matrix.get(targetIndex).addFrom(multipliedSourceRow));
+    default void zeroTarget(int sourceIndex, int targetIndex, Complex multiplier) {
+        zeroTarget(sourceIndex, targetIndex, multiplier, 0);
     }
 
+    /**
+     * Adds the source row times the multiplier to the target row, in place
+     * ("target += multiplier * source").  Columns left of {@code startColumn}
+     * are skipped, so pass the pivot column when the source row is already zero
+     * to its left.
+     * @param sourceIndex index to the source row in the Matrix
+     * @param targetIndex index to the target row in the Matrix
+     * @param multiplier number to multiply the source row by
+     * @param startColumn the first column to update
+     */
+    void zeroTarget(int sourceIndex, int targetIndex, Complex multiplier, int startColumn);
+
     /**
      * Multiplies all columns in the row indexed by the multiplier.
      * This row is affected in the matrix.
      * @param index the index of the row to be multiplied
      * @param multiplier the number to multiply by
      */
-    public void multiplyRow(int index, Complex multiplier) {
-        matrix.set(index, matrix.get(index).multiply(multiplier));
-    }
+    void multiplyRow(int index, Complex multiplier);
 
     /**
-     * Swap columns and rows.  To swap entire rows, make the "to" and "from"
-     * columns the same.  To swap only columns, make the "to" and "from"
-     * row the same. When swapping columns from different rows, be sure
-     * to set the "from" row correctly.
+     * Swap entire rows, entire columns, or both.  To swap only rows, make the "to"
+     * and "from" columns the same; to swap only columns, make the "to" and "from"
+     * rows the same.
      * @param swap the {@link Swap} object
      */
-    public void swap(Swap swap) {
-        if (swap.isEmpty()) {
-            return;
-        }
-
-        int rowFrom = swap.getRowFrom();
-        int colFrom = swap.getColFrom();
-        int rowTo = swap.getRowTo();
-        int colTo = swap.getColTo();
+    void swap(Swap swap);
 
-        // Column and row swap
-        if (colFrom != colTo && rowFrom != rowTo) {
-            Complex temp = matrix.get(rowTo).getColumn(colTo);
-            matrix.get(rowTo).setColumn(colTo, matrix.get(rowFrom).getColumn(colFrom));
-            matrix.get(rowFrom).setColumn(colFrom, temp);
-        } else
-
-            // Column only swap
-            if (colFrom != colTo) {
-                matrix.get(rowFrom).swapColumn(swap);
-        } else
-
-            // Row only swap
-            if (rowFrom != rowTo) {
-                MatrixRow temp = matrix.get(rowTo);
-                matrix.set(rowTo, matrix.get(rowFrom));
-                matrix.set(rowFrom, temp);
-        }
-    }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Matrix other = (Matrix) o;
-        return getLineLength() == other.getLineLength() && getMatrix().equals(other.getMatrix());
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(getMatrix(), getLineLength());
-    }
-
-    @Override
-    public String toString() {
-        return getMatrix()
-                .stream()
-                .map(MatrixRow::toString)
-                .collect(Collectors.joining("\n"));
-    }
+    /** @return about how many bytes of heap the elements take, for the metrics */
+    long estimateHeapBytes();
 }
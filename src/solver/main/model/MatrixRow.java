@@ -35,6 +35,17 @@ public class MatrixRow {
         return row.size();
     }
 
+    /** @return about how many bytes the row and its elements take */
+    long estimateHeapBytes() {
+        long bytes = 16 + 40 + 4L * row.size();
+
+        for (Complex element : row) {
+            bytes += element.estimateHeapBytes();
+        }
+
+        return bytes;
+    }
+
     public Complex getColumn(int index) {
         if (index < 0 || index >= row.size()) {
             Exception e = new RuntimeException("Index out of range");
@@ -43,7 +54,8 @@ public class MatrixRow {
             return Complex.NaN;
         }
 
-        return new Complex(row.get(index));
+        // Complex is immutable, so the element itself can be handed out
+        return row.get(index);
     }
 
     public MatrixRow setColumn(int index, Complex in) {
@@ -66,36 +78,43 @@ public class MatrixRow {
      * @return a new MatrixRow, with the multiplied elements
      */
     public MatrixRow multiply(Complex multiplier) {
-        List<Complex> affected = new ArrayList<>();
+        List<Complex> affected = new ArrayList<>(row.size());
+        MutableComplex product = new MutableComplex();
 
         for (Complex complex : row) {
-            Complex copyComplex = new Complex(complex);
-            affected.add(copyComplex.multiply(multiplier));
+            affected.add(product.set(Complex.ZERO).fma(complex, multiplier).toComplex());
         }
 
         return new MatrixRow(affected);
     }
 
     /**
-     * Add each element from the affecting row to this row.
-     *
-     * @param affectingRow the MatrixRow to get the addends from
-     * @return a new row with its elements added to
+     * Add the source row times the multiplier to this row, in place.  Columns left of
+     * {@code startColumn}, and columns where the source is exactly zero, are left alone.
+     * No intermediate rows are built, and each sum is a single fused multiply-add.
+     * @param source the row to take the addends from; it is not changed
+     * @param multiplier the number to multiply each source element by
+     * @param startColumn the first column to update
+     * @return this row
      */
-    public MatrixRow addFrom(MatrixRow affectingRow) {
-        if (row.size() != affectingRow.getSize()) {
-            System.err.println("MatrixRow::addFrom(): Rows are different sizes");
+    public MatrixRow addMultiple(MatrixRow source, Complex multiplier, int startColumn) {
+        if (row.size() != source.getSize()) {
+            System.err.println("MatrixRow::addMultiple(): Rows are different sizes");
 
-            return null;
+            return this;
         }
 
-        List<Complex> rowCopy = new ArrayList<>(row);
+        MutableComplex sum = new MutableComplex();
 
-        for (int i = 0; i < rowCopy.size(); i++) {
-            rowCopy.set(i, rowCopy.get(i).add(affectingRow.getColumn(i)));
+        for (int i = Math.max(startColumn, 0); i < row.size(); i++) {
+            Complex addend = source.row.get(i);
+
+            if (addend.getReal().signum() != 0 || addend.getImaginary().signum() != 0) {
+                row.set(i, sum.set(row.get(i)).fma(addend, multiplier).toComplex());
+            }
         }
 
-        return new MatrixRow(rowCopy);
+        return this;
     }
 
     public MatrixRow swapColumn(Swap swap) {
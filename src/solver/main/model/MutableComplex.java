@@ -0,0 +1,87 @@
+package solver.main.model;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * A complex number changed in place, for the loops that would otherwise build a new {@link Complex},
+ * and several intermediate {@code BigDecimal}s, at every step.  A fused multiply-add works out the
+ * product exactly and rounds only the sum, to {@link Complex#getMathContext()}, so the digits don't
+ * pile up from one elimination step to the next.  Products of real numbers skip the imaginary parts
+ * entirely.  Take the result out with {@link #toComplex()}.
+ */
+public final class MutableComplex {
+    private BigDecimal real = BigDecimal.ZERO;
+    private BigDecimal imaginary = BigDecimal.ZERO;
+
+    public MutableComplex set(Complex value) {
+        real = value.getReal();
+        imaginary = value.getImaginary();
+
+        return this;
+    }
+
+    /** this += a * b */
+    public MutableComplex fma(Complex a, Complex b) {
+        return accumulate(a, b, false);
+    }
+
+    /** this -= a * b */
+    public MutableComplex fms(Complex a, Complex b) {
+        return accumulate(a, b, true);
+    }
+
+    private MutableComplex accumulate(Complex a, Complex b, boolean subtract) {
+        MathContext mathContext = Complex.getMathContext();
+        BigDecimal aReal = a.getReal();
+        BigDecimal aImaginary = a.getImaginary();
+        BigDecimal bReal = b.getReal();
+        BigDecimal bImaginary = b.getImaginary();
+        boolean aIsReal = aImaginary.signum() == 0;
+        boolean bIsReal = bImaginary.signum() == 0;
+
+        // productReal = aReal * bReal - aImaginary * bImaginary
+        BigDecimal productReal = aReal.multiply(bReal);
+
+        if (!aIsReal && !bIsReal) {
+            productReal = productReal.subtract(aImaginary.multiply(bImaginary));
+        }
+
+        real = subtract ? real.subtract(productReal, mathContext) : real.add(productReal, mathContext);
+
+        if (aIsReal && bIsReal) {
+            return this;
+        }
+
+        // productImaginary = aReal * bImaginary + aImaginary * bReal
+        BigDecimal productImaginary;
+
+        if (aIsReal) {
+            productImaginary = aReal.multiply(bImaginary);
+        } else if (bIsReal) {
+            productImaginary = aImaginary.multiply(bReal);
+        } else {
+            productImaginary = aReal.multiply(bImaginary).add(aImaginary.multiply(bReal));
+        }
+
+        imaginary = subtract
+                ? imaginary.subtract(productImaginary, mathContext)
+                : imaginary.add(productImaginary, mathContext);
+
+        return this;
+    }
+
+    /** @return whether both parts are within the zero tolerance, tested without rounding */
+    public boolean isZero() {
+        return Complex.isWithinTolerance(real) && Complex.isWithinTolerance(imaginary);
+    }
+
+    public Complex toComplex() {
+        return new Complex(real, imaginary);
+    }
+
+    @Override
+    public String toString() {
+        return toComplex().toString();
+    }
+}
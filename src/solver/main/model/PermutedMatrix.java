@@ -0,0 +1,167 @@
+package solver.main.model;
+
+/**
+ * A view of a {@link Matrix} whose rows and coefficient columns are reordered through permutation
+ * vectors, so a swap is O(1) and moves no elements: row {@code r}, column {@code c} of the view is row
+ * {@code rows[r]}, column {@code columns[c]} of the matrix below.  A column swap exchanges whole columns,
+ * every row at once.
+ * <p>
+ * The matrix below is changed only by the row operations.  {@link #applyRowOrder()} finally moves its
+ * rows into the view's order; its columns stay as they are, one per variable in the original order.
+ */
+public class PermutedMatrix implements Matrix {
+    private final Matrix matrix;
+    private final int[] rows;
+    private final int[] columns;
+    private boolean columnsPermuted = false;
+
+    public PermutedMatrix(Matrix matrix) {
+        this.matrix = matrix;
+        rows = new int[matrix.getSize()];
+        columns = new int[Math.max(0, matrix.getLineLength())];
+
+        for (int row = 0; row < rows.length; row++) {
+            rows[row] = row;
+        }
+
+        for (int column = 0; column < columns.length; column++) {
+            columns[column] = column;
+        }
+    }
+
+    @Override
+    public void add(MatrixRow row) {
+        System.err.println("Cannot add row, a permuted matrix is a view of another");
+    }
+
+    @Override
+    public int getSize() {
+        return matrix.getSize();
+    }
+
+    @Override
+    public int getLineLength() {
+        return matrix.getLineLength();
+    }
+
+    @Override
+    public Complex getCoefficient(int row, int column) {
+        return matrix.getCoefficient(rows[row], columns[column]);
+    }
+
+    @Override
+    public void setCoefficient(int row, int column, Complex value) {
+        matrix.setCoefficient(rows[row], columns[column], value);
+    }
+
+    @Override
+    public boolean isZero(int row, int column) {
+        return matrix.isZero(rows[row], columns[column]);
+    }
+
+    @Override
+    public int nextNonZeroColumn(int row, int fromColumn) {
+        return columnsPermuted
+                ? Matrix.super.nextNonZeroColumn(row, fromColumn)
+                : matrix.nextNonZeroColumn(rows[row], fromColumn);
+    }
+
+    @Override
+    public void zeroTarget(int sourceIndex, int targetIndex, Complex multiplier, int startColumn) {
+        matrix.zeroTarget(rows[sourceIndex], rows[targetIndex], multiplier, physicalStart(startColumn));
+    }
+
+    // The first column below that shows at or right of the start column of the view
+    private int physicalStart(int startColumn) {
+        if (!columnsPermuted || startColumn <= 0) {
+            return startColumn;
+        }
+
+        int start = startColumn;
+
+        for (int column = startColumn; column < columns.length; column++) {
+            start = Math.min(start, columns[column]);
+        }
+
+        return start;
+    }
+
+    @Override
+    public void multiplyRow(int index, Complex multiplier) {
+        matrix.multiplyRow(rows[index], multiplier);
+    }
+
+    /**
+     * Swap the "from" and "to" rows if they differ, and the "from" and "to" columns, in every row, if
+     * they differ.  Only the permutation vectors change.
+     */
+    @Override
+    public void swap(Swap swap) {
+        if (swap.isEmpty()) {
+            return;
+        }
+
+        if (swap.getRowFrom() != swap.getRowTo()) {
+            exchange(rows, swap.getRowFrom(), swap.getRowTo());
+        }
+
+        if (swap.getColFrom() != swap.getColTo()) {
+            exchange(columns, swap.getColFrom(), swap.getColTo());
+            columnsPermuted = true;
+        }
+    }
+
+    private static void exchange(int[] permutation, int first, int second) {
+        int temp = permutation[first];
+        permutation[first] = permutation[second];
+        permutation[second] = temp;
+    }
+
+    /**
+     * Move the rows of the matrix below into the order this view shows them in, with at most one row
+     * swap per row.  Afterwards the view's rows and the matrix's are the same.
+     */
+    public void applyRowOrder() {
+        int[] positions = new int[rows.length];
+
+        for (int row = 0; row < rows.length; row++) {
+            positions[rows[row]] = row;
+        }
+
+        for (int row = 0; row < rows.length; row++) {
+            int source = rows[row];
+
+            if (source == row) {
+                continue;
+            }
+
+            // The row that was at this position moves to where the wanted one was
+            matrix.swap(new Swap(source, 0, row, 0));
+            int displaced = positions[row];
+            rows[displaced] = source;
+            positions[source] = displaced;
+            rows[row] = row;
+            positions[row] = row;
+        }
+    }
+
+    @Override
+    public long estimateHeapBytes() {
+        return matrix.estimateHeapBytes() + (long) (rows.length + columns.length) * Integer.BYTES;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+
+        for (int row = 0; row < getSize(); row++) {
+            for (int column = 0; column < getLineLength(); column++) {
+                out.append(column == 0 ? "" : " ").append(getCoefficient(row, column));
+            }
+
+            out.append('\n');
+        }
+
+        return out.toString();
+    }
+}
@@ -0,0 +1,27 @@
+package solver.main.model;
+
+/**
+ * How precisely the solver computes.  Each tier brings its own matrix storage and elimination
+ * arithmetic, plus the number of decimal places kept when {@link Complex} divides.
+ */
+public enum Precision {
+    /** IEEE double, about 16 significant digits, in {@link DenseMatrix} */
+    DOUBLE(20),
+
+    /** Double-double, about 32 significant digits, in {@link DoubleDoubleMatrix} */
+    DOUBLE_DOUBLE(40),
+
+    /** {@link java.math.BigDecimal}, in {@link RowListMatrix}, to any scale */
+    BIG_DECIMAL(Complex.DEFAULT_DIVIDE_SCALE);
+
+    private final int divideScale;
+
+    Precision(int divideScale) {
+        this.divideScale = divideScale;
+    }
+
+    /** @return the scale {@link Complex} divisions are rounded to, unless the user chose one */
+    public int getDivideScale() {
+        return divideScale;
+    }
+}
@@ -0,0 +1,76 @@
+package solver.main.model;
+
+/**
+ * The inner loops of the {@code double} storage and solvers: row updates, row scaling and the dot
+ * products of substitution, on split real and imaginary arrays.  They run on the Vector API when the
+ * {@code jdk.incubator.vector} module is present ({@code java --add-modules jdk.incubator.vector}),
+ * and as plain loops otherwise.
+ */
+public final class RowKernels {
+    private static final Kernels KERNELS = load();
+
+    private RowKernels() {
+    }
+
+    // Loaded by name, so this class still links when the module isn't there
+    private static Kernels load() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (Kernels) Class.forName(RowKernels.class.getPackageName() + ".VectorKernels")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                System.err.println("Vector API unavailable, using scalar kernels: " + e);
+            }
+        }
+
+        return new ScalarKernels();
+    }
+
+    /** @return "vector" or "scalar" */
+    public static String getImplementation() {
+        return KERNELS instanceof ScalarKernels ? "scalar" : "vector";
+    }
+
+    /** y[yOffset + i] += a * x[xOffset + i], for i below the length */
+    public static void axpy(double a, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        KERNELS.axpy(a, x, xOffset, y, yOffset, length);
+    }
+
+    /**
+     * y[yOffset + i] += a * x[xOffset + i], in complex arithmetic.  A real multiplier updates each part on
+     * its own, which is half the work.
+     */
+    public static void complexAxpy(double aReal, double aImaginary, double[] xReal, double[] xImaginary,
+                                   int xOffset, double[] yReal, double[] yImaginary, int yOffset, int length) {
+        if (aImaginary == 0) {
+            KERNELS.axpy(aReal, xReal, xOffset, yReal, yOffset, length);
+            KERNELS.axpy(aReal, xImaginary, xOffset, yImaginary, yOffset, length);
+        } else {
+            KERNELS.complexAxpy(aReal, aImaginary, xReal, xImaginary, xOffset, yReal, yImaginary, yOffset, length);
+        }
+    }
+
+    /** x[offset + i] *= a, in complex arithmetic */
+    public static void complexScale(double aReal, double aImaginary, double[] xReal, double[] xImaginary,
+                                    int offset, int length) {
+        KERNELS.complexScale(aReal, aImaginary, xReal, xImaginary, offset, length);
+    }
+
+    /**
+     * sum -= the sum of a[aOffset + i] * b[bOffset + i], in complex arithmetic
+     * @param sum {real, imaginary}: the starting value, replaced by the result
+     */
+    public static void subtractDot(double[] aReal, double[] aImaginary, int aOffset, double[] bReal,
+                                   double[] bImaginary, int bOffset, int length, double[] sum) {
+        KERNELS.subtractDot(aReal, aImaginary, aOffset, bReal, bImaginary, bOffset, length, sum);
+    }
+
+    /**
+     * sum -= the sum of a[aOffset + i] * conjugate(b[bOffset + i]), the Hermitian inner product
+     * @param sum {real, imaginary}: the starting value, replaced by the result
+     */
+    public static void subtractConjugateDot(double[] aReal, double[] aImaginary, int aOffset, double[] bReal,
+                                            double[] bImaginary, int bOffset, int length, double[] sum) {
+        KERNELS.subtractConjugateDot(aReal, aImaginary, aOffset, bReal, bImaginary, bOffset, length, sum);
+    }
+}
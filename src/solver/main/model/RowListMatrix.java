@@ -0,0 +1,175 @@
+package solver.main.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link Matrix} stored as a list of {@link MatrixRow}s, one {@link Complex} object per cell.
+ */
+public class RowListMatrix implements Matrix {
+    private final List<MatrixRow> matrix;
+    private int lineLength = -1;
+
+    public RowListMatrix() {
+        matrix = new ArrayList<>();
+    }
+
+    public RowListMatrix(List<MatrixRow> matrix) {
+        this.matrix = matrix;
+    }
+
+    /**
+     * Create a zero-filled matrix, ready for {@link #setCoefficient(int, int, Complex)}.
+     * @param size the number of rows (equations)
+     * @param lineLength the number of columns, including the constant column
+     */
+    public RowListMatrix(int size, int lineLength) {
+        this();
+
+        for (int row = 0; row < size; row++) {
+            MatrixRow matrixRow = new MatrixRow();
+
+            for (int column = 0; column < lineLength; column++) {
+                matrixRow.add(Complex.ZERO);
+            }
+
+            add(matrixRow);
+        }
+    }
+
+    @Override
+    public void add(MatrixRow row) {
+        if (lineLength == -1) {
+            lineLength = row.getSize();
+        } else if (lineLength != row.getSize()) {
+            System.err.println("Cannot add row, line length is wrong");
+            return;
+        }
+
+        matrix.add(row);
+    }
+
+    @Override
+    public int getSize() {
+        return matrix.size();
+    }
+
+    @Override
+    public int getLineLength() {
+        return lineLength;
+    }
+
+    @Override
+    public long estimateHeapBytes() {
+        long bytes = 0;
+
+        for (MatrixRow row : matrix) {
+            bytes += row.estimateHeapBytes();
+        }
+
+        return bytes;
+    }
+
+    public List<MatrixRow> getMatrix() {
+        return matrix;
+    }
+
+    public MatrixRow getMatrixRow(int index) {
+        if (index < 0 || index >= matrix.size()) {
+            System.err.println("Matrix::getMatrixRow: Row index out of range");
+
+            return null;
+        }
+
+        return matrix.get(index);
+    }
+
+    @Override
+    public Complex getCoefficient(int row, int column) {
+        if (row < 0 || row >= getSize()) {
+            Exception e = new RuntimeException(
+                    String.format("Matrix::getCoefficient(): Row is out of range (%d)", row));
+            e.printStackTrace();
+
+            return Complex.NaN;
+        }
+
+        if (column < 0 || column >= getLineLength()) {
+            Exception e = new RuntimeException(
+                    String.format("Matrix::getCoefficient(): Column is out of range (%d)", column));
+            e.printStackTrace();
+
+            return Complex.NaN;
+        }
+
+        return matrix.get(row).getColumn(column);
+    }
+
+    @Override
+    public void setCoefficient(int row, int column, Complex value) {
+        if (row < 0 || row >= getSize()) {
+            System.err.println("RowListMatrix::setCoefficient(): Row index out of range");
+            return;
+        }
+
+        matrix.get(row).setColumn(column, value);
+    }
+
+    @Override
+    public void zeroTarget(int sourceIndex, int targetIndex, Complex multiplier, int startColumn) {
+        matrix.get(targetIndex).addMultiple(matrix.get(sourceIndex), multiplier, startColumn);
+    }
+
+    @Override
+    public void multiplyRow(int index, Complex multiplier) {
+        matrix.set(index, matrix.get(index).multiply(multiplier));
+    }
+
+    @Override
+    public void swap(Swap swap) {
+        if (swap.isEmpty()) {
+            return;
+        }
+
+        int rowFrom = swap.getRowFrom();
+        int colFrom = swap.getColFrom();
+        int rowTo = swap.getRowTo();
+        int colTo = swap.getColTo();
+
+        // Whole rows, then whole columns
+        if (rowFrom != rowTo) {
+            MatrixRow temp = matrix.get(rowTo);
+            matrix.set(rowTo, matrix.get(rowFrom));
+            matrix.set(rowFrom, temp);
+        }
+
+        if (colFrom != colTo) {
+            for (MatrixRow row : matrix) {
+                row.swapColumn(swap);
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RowListMatrix other = (RowListMatrix) o;
+        return getLineLength() == other.getLineLength() && getMatrix().equals(other.getMatrix());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getMatrix(), getLineLength());
+    }
+
+    @Override
+    public String toString() {
+        return getMatrix()
+                .stream()
+                .map(MatrixRow::toString)
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,67 @@
+package solver.main.model;
+
+/** The kernels as plain loops, which the JIT compiler may vectorize on its own */
+final class ScalarKernels implements Kernels {
+
+    @Override
+    public void axpy(double a, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            y[yOffset + i] += a * x[xOffset + i];
+        }
+    }
+
+    @Override
+    public void complexAxpy(double aReal, double aImaginary, double[] xReal, double[] xImaginary, int xOffset,
+                            double[] yReal, double[] yImaginary, int yOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            double sourceReal = xReal[xOffset + i];
+            double sourceImaginary = xImaginary[xOffset + i];
+            yReal[yOffset + i] += aReal * sourceReal - aImaginary * sourceImaginary;
+            yImaginary[yOffset + i] += aReal * sourceImaginary + aImaginary * sourceReal;
+        }
+    }
+
+    @Override
+    public void complexScale(double aReal, double aImaginary, double[] xReal, double[] xImaginary, int offset,
+                             int length) {
+        for (int i = offset; i < offset + length; i++) {
+            double oldReal = xReal[i];
+            xReal[i] = oldReal * aReal - xImaginary[i] * aImaginary;
+            xImaginary[i] = oldReal * aImaginary + xImaginary[i] * aReal;
+        }
+    }
+
+    @Override
+    public void subtractDot(double[] aReal, double[] aImaginary, int aOffset, double[] bReal, double[] bImaginary,
+                            int bOffset, int length, double[] sum) {
+        double sumReal = sum[0];
+        double sumImaginary = sum[1];
+
+        for (int i = 0; i < length; i++) {
+            int a = aOffset + i;
+            int b = bOffset + i;
+            sumReal -= aReal[a] * bReal[b] - aImaginary[a] * bImaginary[b];
+            sumImaginary -= aReal[a] * bImaginary[b] + aImaginary[a] * bReal[b];
+        }
+
+        sum[0] = sumReal;
+        sum[1] = sumImaginary;
+    }
+
+    @Override
+    public void subtractConjugateDot(double[] aReal, double[] aImaginary, int aOffset, double[] bReal,
+                                     double[] bImaginary, int bOffset, int length, double[] sum) {
+        double sumReal = sum[0];
+        double sumImaginary = sum[1];
+
+        for (int i = 0; i < length; i++) {
+            int a = aOffset + i;
+            int b = bOffset + i;
+            sumReal -= aReal[a] * bReal[b] + aImaginary[a] * bImaginary[b];
+            sumImaginary -= aImaginary[a] * bReal[b] - aReal[a] * bImaginary[b];
+        }
+
+        sum[0] = sumReal;
+        sum[1] = sumImaginary;
+    }
+}
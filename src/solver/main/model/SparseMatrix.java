@@ -0,0 +1,410 @@
+package solver.main.model;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * A {@link Matrix} that stores only its non-zero elements.  Each row keeps its column indexes in
+ * ascending order, with the real and imaginary parts in parallel {@code double} arrays, so memory
+ * and the cost of a row operation grow with the number of non-zeros rather than the line length.
+ * An element that becomes exactly zero is dropped.
+ */
+public class SparseMatrix implements Matrix {
+    private static final int INITIAL_ROW_CAPACITY = 4;
+
+    private final int size;
+    private final int lineLength;
+    private final Row[] rows;
+    private int rowsAdded = 0;
+
+    /**
+     * Create an all-zero matrix.
+     * @param size the number of rows (equations)
+     * @param lineLength the number of columns, including the constant column
+     */
+    public SparseMatrix(int size, int lineLength) {
+        this.size = size;
+        this.lineLength = lineLength;
+        rows = new Row[size];
+
+        for (int row = 0; row < size; row++) {
+            rows[row] = new Row();
+        }
+    }
+
+    @Override
+    public void add(MatrixRow row) {
+        if (rowsAdded >= size) {
+            System.err.println("Cannot add row, matrix is full");
+            return;
+        }
+
+        if (row.getSize() != lineLength) {
+            System.err.println("Cannot add row, line length is wrong");
+            return;
+        }
+
+        for (int column = 0; column < lineLength; column++) {
+            setCoefficient(rowsAdded, column, row.getColumn(column));
+        }
+
+        rowsAdded++;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public int getLineLength() {
+        return size == 0 ? -1 : lineLength;
+    }
+
+    // Counts the arrays' capacity, not just the elements in use, since that's what fill-in costs
+    @Override
+    public long estimateHeapBytes() {
+        long bytes = 0;
+
+        for (Row row : rows) {
+            bytes += (long) row.columns.length * (Integer.BYTES + 2 * Double.BYTES);
+        }
+
+        return bytes;
+    }
+
+    @Override
+    public Complex getCoefficient(int row, int column) {
+        if (row < 0 || row >= size || column < 0 || column >= lineLength) {
+            Exception e = new RuntimeException(String.format(
+                    "SparseMatrix::getCoefficient(): Index is out of range (%d, %d)", row, column));
+            e.printStackTrace();
+
+            return Complex.NaN;
+        }
+
+        Row matrixRow = rows[row];
+        int position = matrixRow.find(column);
+
+        if (position < 0) {
+            return Complex.ZERO;
+        }
+
+        return new Complex(matrixRow.real[position], matrixRow.imaginary[position]);
+    }
+
+    @Override
+    public void setCoefficient(int row, int column, Complex value) {
+        setCoefficient(row, column, value.getReal().doubleValue(), value.getImaginary().doubleValue());
+    }
+
+    @Override
+    public boolean isZero(int row, int column) {
+        Row matrixRow = rows[row];
+        int position = matrixRow.find(column);
+        double tolerance = Complex.getDoubleZeroTolerance();
+
+        return position < 0 || Math.abs(matrixRow.real[position]) <= tolerance
+                && Math.abs(matrixRow.imaginary[position]) <= tolerance;
+    }
+
+    /** Set an element from its parts, without going through {@link Complex} */
+    public void setCoefficient(int row, int column, double real, double imaginary) {
+        if (row < 0 || row >= size || column < 0 || column >= lineLength) {
+            System.err.println("SparseMatrix::setCoefficient(): Index out of range");
+            return;
+        }
+
+        rows[row].set(column, real, imaginary);
+    }
+
+    /** @return the number of non-zero elements in the row */
+    public int getRowCount(int row) {
+        return rows[row].count;
+    }
+
+    /** @return the column of the row's {@code k}th non-zero element, in ascending column order */
+    public int getColumnAt(int row, int k) {
+        return rows[row].columns[k];
+    }
+
+    public double getRealAt(int row, int k) {
+        return rows[row].real[k];
+    }
+
+    public double getImaginaryAt(int row, int k) {
+        return rows[row].imaginary[k];
+    }
+
+    /** @return the number of non-zero elements in the whole matrix */
+    public long getNonZeroCount() {
+        long count = 0;
+
+        for (Row row : rows) {
+            count += row.count;
+        }
+
+        return count;
+    }
+
+    /** Make every element of the row zero */
+    public void clearRow(int row) {
+        rows[row].count = 0;
+    }
+
+    @Override
+    public int nextNonZeroColumn(int row, int fromColumn) {
+        Row matrixRow = rows[row];
+        int position = matrixRow.find(fromColumn);
+
+        double tolerance = Complex.getDoubleZeroTolerance();
+
+        for (int k = position < 0 ? -position - 1 : position; k < matrixRow.count; k++) {
+            if (Math.abs(matrixRow.real[k]) > tolerance || Math.abs(matrixRow.imaginary[k]) > tolerance) {
+                return matrixRow.columns[k];
+            }
+        }
+
+        return lineLength;
+    }
+
+    /**
+     * Merge the two sorted rows in place.  The target's elements are first moved to the end of its arrays,
+     * which only grow when they can't hold both rows, and the merge writes from the front: it never
+     * catches up with the target elements still to be read.  Only the target row is written, so targets
+     * may be updated in parallel.
+     */
+    @Override
+    public void zeroTarget(int sourceIndex, int targetIndex, Complex multiplier, int startColumn) {
+        Row source = rows[sourceIndex];
+        Row target = rows[targetIndex];
+        double multiplierReal = multiplier.getReal().doubleValue();
+        double multiplierImaginary = multiplier.getImaginary().doubleValue();
+        int s = source.find(startColumn);
+        s = s < 0 ? -s - 1 : s;
+        int targetCount = target.count;
+        target.ensureCapacity(targetCount + source.count - s);
+
+        int[] columns = target.columns;
+        double[] real = target.real;
+        double[] imaginary = target.imaginary;
+        int offset = columns.length - targetCount;
+        System.arraycopy(columns, 0, columns, offset, targetCount);
+        System.arraycopy(real, 0, real, offset, targetCount);
+        System.arraycopy(imaginary, 0, imaginary, offset, targetCount);
+        int t = offset;
+        int end = offset + targetCount;
+        int count = 0;
+
+        while (s < source.count || t < end) {
+            int sourceColumn = s < source.count ? source.columns[s] : Integer.MAX_VALUE;
+            int targetColumn = t < end ? columns[t] : Integer.MAX_VALUE;
+
+            if (targetColumn < sourceColumn) {
+                columns[count] = targetColumn;
+                real[count] = real[t];
+                imaginary[count] = imaginary[t];
+                count++;
+                t++;
+                continue;
+            }
+
+            double sourceReal = source.real[s];
+            double sourceImaginary = source.imaginary[s];
+            double newReal = multiplierReal * sourceReal - multiplierImaginary * sourceImaginary;
+            double newImaginary = multiplierReal * sourceImaginary + multiplierImaginary * sourceReal;
+
+            if (targetColumn == sourceColumn) {
+                newReal += real[t];
+                newImaginary += imaginary[t];
+                t++;
+            }
+
+            if (newReal != 0 || newImaginary != 0) {
+                columns[count] = sourceColumn;
+                real[count] = newReal;
+                imaginary[count] = newImaginary;
+                count++;
+            }
+
+            s++;
+        }
+
+        target.count = count;
+    }
+
+    @Override
+    public void multiplyRow(int index, Complex multiplier) {
+        Row row = rows[index];
+        double multiplierReal = multiplier.getReal().doubleValue();
+        double multiplierImaginary = multiplier.getImaginary().doubleValue();
+
+        for (int k = 0; k < row.count; k++) {
+            double oldReal = row.real[k];
+            double oldImaginary = row.imaginary[k];
+            row.real[k] = oldReal * multiplierReal - oldImaginary * multiplierImaginary;
+            row.imaginary[k] = oldReal * multiplierImaginary + oldImaginary * multiplierReal;
+        }
+    }
+
+    @Override
+    public void swap(Swap swap) {
+        if (swap.isEmpty()) {
+            return;
+        }
+
+        int rowFrom = swap.getRowFrom();
+        int colFrom = swap.getColFrom();
+        int rowTo = swap.getRowTo();
+        int colTo = swap.getColTo();
+
+        // Whole rows, then whole columns
+        if (rowFrom != rowTo) {
+            Row temp = rows[rowTo];
+            rows[rowTo] = rows[rowFrom];
+            rows[rowFrom] = temp;
+        }
+
+        if (colFrom != colTo) {
+            for (int row = 0; row < rows.length; row++) {
+                swapElements(row, colTo, row, colFrom);
+            }
+        }
+    }
+
+    private void swapElements(int firstRow, int firstColumn, int secondRow, int secondColumn) {
+        Complex first = getCoefficient(firstRow, firstColumn);
+        setCoefficient(firstRow, firstColumn, getCoefficient(secondRow, secondColumn));
+        setCoefficient(secondRow, secondColumn, first);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SparseMatrix other = (SparseMatrix) o;
+
+        if (size != other.size || lineLength != other.lineLength) {
+            return false;
+        }
+
+        for (int row = 0; row < size; row++) {
+            if (!rows[row].equals(other.rows[row])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(size, lineLength, Arrays.hashCode(rows));
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner lines = new StringJoiner("\n");
+
+        for (int row = 0; row < size; row++) {
+            StringJoiner columns = new StringJoiner(" ");
+
+            for (int column = 0; column < lineLength; column++) {
+                columns.add(getCoefficient(row, column).toString());
+            }
+
+            lines.add(columns.toString());
+        }
+
+        return lines.toString();
+    }
+
+    /** The non-zero elements of one row, sorted by column */
+    private static class Row {
+        private int[] columns = new int[INITIAL_ROW_CAPACITY];
+        private double[] real = new double[INITIAL_ROW_CAPACITY];
+        private double[] imaginary = new double[INITIAL_ROW_CAPACITY];
+        private int count = 0;
+
+        /** @return the position of the column, or {@code -(insertion point) - 1} when it is zero */
+        private int find(int column) {
+            // Rows are usually filled left to right, so try the end first
+            if (count == 0 || columns[count - 1] < column) {
+                return -count - 1;
+            }
+
+            return Arrays.binarySearch(columns, 0, count, column);
+        }
+
+        private void set(int column, double newReal, double newImaginary) {
+            int position = find(column);
+
+            if (newReal == 0 && newImaginary == 0) {
+                if (position >= 0) {
+                    remove(position);
+                }
+
+                return;
+            }
+
+            if (position < 0) {
+                position = -position - 1;
+                insert(position, column);
+            }
+
+            real[position] = newReal;
+            imaginary[position] = newImaginary;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > columns.length) {
+                capacity = Math.max(capacity, columns.length * 2);
+                columns = Arrays.copyOf(columns, capacity);
+                real = Arrays.copyOf(real, capacity);
+                imaginary = Arrays.copyOf(imaginary, capacity);
+            }
+        }
+
+        private void insert(int position, int column) {
+            ensureCapacity(count + 1);
+
+            System.arraycopy(columns, position, columns, position + 1, count - position);
+            System.arraycopy(real, position, real, position + 1, count - position);
+            System.arraycopy(imaginary, position, imaginary, position + 1, count - position);
+            columns[position] = column;
+            count++;
+        }
+
+        private void remove(int position) {
+            System.arraycopy(columns, position + 1, columns, position, count - position - 1);
+            System.arraycopy(real, position + 1, real, position, count - position - 1);
+            System.arraycopy(imaginary, position + 1, imaginary, position, count - position - 1);
+            count--;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Row other = (Row) o;
+            return count == other.count
+                    && Arrays.equals(columns, 0, count, other.columns, 0, count)
+                    && Arrays.equals(real, 0, count, other.real, 0, count)
+                    && Arrays.equals(imaginary, 0, count, other.imaginary, 0, count);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = count;
+
+            for (int k = 0; k < count; k++) {
+                result = 31 * result + columns[k];
+                result = 31 * result + Double.hashCode(real[k]);
+                result = 31 * result + Double.hashCode(imaginary[k]);
+            }
+
+            return result;
+        }
+    }
+}
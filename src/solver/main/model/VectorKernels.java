@@ -0,0 +1,110 @@
+package solver.main.model;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The kernels in the Vector API, as wide as the processor allows: 4 lanes with AVX2, 8 with AVX-512.
+ * Each lane does the scalar operations in the scalar order, so the row updates give the same bits as
+ * {@link ScalarKernels}; only the dot product adds its terms in another order.  Only {@link RowKernels}
+ * refers to this class, by name, so it is never loaded without the {@code jdk.incubator.vector} module.
+ */
+final class VectorKernels implements Kernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private final ScalarKernels tail = new ScalarKernels();
+
+    @Override
+    public void axpy(double a, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector source = DoubleVector.fromArray(SPECIES, x, xOffset + i);
+            DoubleVector.fromArray(SPECIES, y, yOffset + i).add(source.mul(a)).intoArray(y, yOffset + i);
+        }
+
+        tail.axpy(a, x, xOffset + i, y, yOffset + i, length - i);
+    }
+
+    @Override
+    public void complexAxpy(double aReal, double aImaginary, double[] xReal, double[] xImaginary, int xOffset,
+                            double[] yReal, double[] yImaginary, int yOffset, int length) {
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector sourceReal = DoubleVector.fromArray(SPECIES, xReal, xOffset + i);
+            DoubleVector sourceImaginary = DoubleVector.fromArray(SPECIES, xImaginary, xOffset + i);
+            DoubleVector productReal = sourceReal.mul(aReal).sub(sourceImaginary.mul(aImaginary));
+            DoubleVector productImaginary = sourceImaginary.mul(aReal).add(sourceReal.mul(aImaginary));
+            DoubleVector.fromArray(SPECIES, yReal, yOffset + i).add(productReal).intoArray(yReal, yOffset + i);
+            DoubleVector.fromArray(SPECIES, yImaginary, yOffset + i).add(productImaginary)
+                    .intoArray(yImaginary, yOffset + i);
+        }
+
+        tail.complexAxpy(aReal, aImaginary, xReal, xImaginary, xOffset + i, yReal, yImaginary, yOffset + i,
+                length - i);
+    }
+
+    @Override
+    public void complexScale(double aReal, double aImaginary, double[] xReal, double[] xImaginary, int offset,
+                             int length) {
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector oldReal = DoubleVector.fromArray(SPECIES, xReal, offset + i);
+            DoubleVector oldImaginary = DoubleVector.fromArray(SPECIES, xImaginary, offset + i);
+            oldReal.mul(aReal).sub(oldImaginary.mul(aImaginary)).intoArray(xReal, offset + i);
+            oldReal.mul(aImaginary).add(oldImaginary.mul(aReal)).intoArray(xImaginary, offset + i);
+        }
+
+        tail.complexScale(aReal, aImaginary, xReal, xImaginary, offset + i, length - i);
+    }
+
+    @Override
+    public void subtractDot(double[] aReal, double[] aImaginary, int aOffset, double[] bReal, double[] bImaginary,
+                            int bOffset, int length, double[] sum) {
+        int bound = SPECIES.loopBound(length);
+        DoubleVector sumReal = DoubleVector.zero(SPECIES);
+        DoubleVector sumImaginary = DoubleVector.zero(SPECIES);
+        int i = 0;
+
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector leftReal = DoubleVector.fromArray(SPECIES, aReal, aOffset + i);
+            DoubleVector leftImaginary = DoubleVector.fromArray(SPECIES, aImaginary, aOffset + i);
+            DoubleVector rightReal = DoubleVector.fromArray(SPECIES, bReal, bOffset + i);
+            DoubleVector rightImaginary = DoubleVector.fromArray(SPECIES, bImaginary, bOffset + i);
+            sumReal = sumReal.add(leftReal.mul(rightReal).sub(leftImaginary.mul(rightImaginary)));
+            sumImaginary = sumImaginary.add(leftReal.mul(rightImaginary).add(leftImaginary.mul(rightReal)));
+        }
+
+        sum[0] -= sumReal.reduceLanes(VectorOperators.ADD);
+        sum[1] -= sumImaginary.reduceLanes(VectorOperators.ADD);
+        tail.subtractDot(aReal, aImaginary, aOffset + i, bReal, bImaginary, bOffset + i, length - i, sum);
+    }
+
+    @Override
+    public void subtractConjugateDot(double[] aReal, double[] aImaginary, int aOffset, double[] bReal,
+                                     double[] bImaginary, int bOffset, int length, double[] sum) {
+        int bound = SPECIES.loopBound(length);
+        DoubleVector sumReal = DoubleVector.zero(SPECIES);
+        DoubleVector sumImaginary = DoubleVector.zero(SPECIES);
+        int i = 0;
+
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector leftReal = DoubleVector.fromArray(SPECIES, aReal, aOffset + i);
+            DoubleVector leftImaginary = DoubleVector.fromArray(SPECIES, aImaginary, aOffset + i);
+            DoubleVector rightReal = DoubleVector.fromArray(SPECIES, bReal, bOffset + i);
+            DoubleVector rightImaginary = DoubleVector.fromArray(SPECIES, bImaginary, bOffset + i);
+            sumReal = sumReal.add(leftReal.mul(rightReal).add(leftImaginary.mul(rightImaginary)));
+            sumImaginary = sumImaginary.add(leftImaginary.mul(rightReal).sub(leftReal.mul(rightImaginary)));
+        }
+
+        sum[0] -= sumReal.reduceLanes(VectorOperators.ADD);
+        sum[1] -= sumImaginary.reduceLanes(VectorOperators.ADD);
+        tail.subtractConjugateDot(aReal, aImaginary, aOffset + i, bReal, bImaginary, bOffset + i, length - i, sum);
+    }
+}
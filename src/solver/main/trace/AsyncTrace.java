@@ -0,0 +1,91 @@
+package solver.main.trace;
+
+import solver.main.model.Complex;
+import solver.main.model.Swap;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hands every call to another trace on a background thread, so the solver only pays for queueing
+ * and the formatting and writing happen elsewhere.  The queue is bounded; if the writer falls that
+ * far behind, the solver waits for it.
+ */
+public class AsyncTrace implements Trace {
+    private static final int QUEUE_CAPACITY = 1 << 16;
+
+    private final BlockingQueue<Consumer<Trace>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+    private volatile boolean closed = false;
+
+    public AsyncTrace(Trace delegate) {
+        writer = new Thread(() -> drain(delegate), "trace-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private void drain(Trace delegate) {
+        try {
+            while (!closed || !queue.isEmpty()) {
+                Consumer<Trace> event = queue.take();
+                event.accept(delegate);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            delegate.close();
+        }
+    }
+
+    private void enqueue(Consumer<Trace> event) {
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void addRow(Complex multiplier, int sourceRow, int targetRow) {
+        enqueue(trace -> trace.addRow(multiplier, sourceRow, targetRow));
+    }
+
+    @Override
+    public void multiplyRow(Complex multiplier, int row) {
+        enqueue(trace -> trace.multiplyRow(multiplier, row));
+    }
+
+    @Override
+    public void swap(Swap swap) {
+        enqueue(trace -> trace.swap(swap));
+    }
+
+    @Override
+    public void swapRows(int first, int second) {
+        enqueue(trace -> trace.swapRows(first, second));
+    }
+
+    @Override
+    public void iteration(int iteration, double relativeResidual) {
+        enqueue(trace -> trace.iteration(iteration, relativeResidual));
+    }
+
+    @Override
+    public void message(String text) {
+        enqueue(trace -> trace.message(text));
+    }
+
+    /** Waits until everything queued has been written */
+    @Override
+    public void close() {
+        // the last event wakes the writer, which then sees closed and stops once the queue is empty
+        enqueue(trace -> closed = true);
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
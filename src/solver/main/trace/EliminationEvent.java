@@ -0,0 +1,41 @@
+package solver.main.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** A Flight Recorder event for one Gauss-Jordan solve, with the operations it took */
+@Name("solver.Elimination")
+@Label("Gauss-Jordan Elimination")
+@Category("Linear Equations Solver")
+@Description("One system reduced by Gauss-Jordan elimination")
+public class EliminationEvent extends Event {
+    @Label("Equations")
+    public int equations;
+
+    @Label("Variables")
+    public int variables;
+
+    @Label("Rank")
+    public int rank;
+
+    @Label("Solution State")
+    public String state;
+
+    @Label("Complex Multiplies")
+    public long multiplies;
+
+    @Label("Complex Divides")
+    public long divides;
+
+    @Label("Zero Checks")
+    public long zeroChecks;
+
+    @Label("Row Swaps")
+    public long rowSwaps;
+
+    @Label("Column Swaps")
+    public long columnSwaps;
+}
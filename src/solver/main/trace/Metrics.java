@@ -0,0 +1,132 @@
+package solver.main.trace;
+
+import solver.main.model.Matrix;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Where a run's time goes and how much work it does: the time spent in each phase, the arithmetic and
+ * pivoting operations, and the largest the matrix storage grew.  Every phase is also recorded as a
+ * {@link PhaseEvent} for Flight Recorder.
+ * <p>
+ * It is cheap enough to leave on: a phase costs two clock reads, and the solvers count their
+ * operations in local variables and add them here once per solve.  The totals are safe to add to from
+ * many threads, so one instance can cover a whole batch.
+ */
+public class Metrics {
+
+    /** The parts of a run that are timed.  {@code SOLVE} holds the two elimination phases, when there are any */
+    public enum Phase { PARSE, SOLVE, FORWARD_ELIMINATION, BACK_SUBSTITUTION, OUTPUT }
+
+    /** The operations that are counted */
+    public enum Counter { MULTIPLIES, DIVIDES, ZERO_CHECKS, ROW_SWAPS, COLUMN_SWAPS }
+
+    private final Map<Phase, LongAdder> nanoseconds = new EnumMap<>(Phase.class);
+    private final Map<Counter, LongAdder> counts = new EnumMap<>(Counter.class);
+    private final LongAdder systems = new LongAdder();
+    private final LongAccumulator peakMatrixBytes = new LongAccumulator(Math::max, 0);
+
+    public Metrics() {
+        for (Phase phase : Phase.values()) {
+            nanoseconds.put(phase, new LongAdder());
+        }
+
+        for (Counter counter : Counter.values()) {
+            counts.put(counter, new LongAdder());
+        }
+    }
+
+    /**
+     * Start timing a phase; stop the result when it ends.
+     * <pre>{@code Metrics.Timing parsing = metrics.time(Metrics.Phase.PARSE);
+     * try { ... } finally { parsing.stop(); }}</pre>
+     */
+    public Timing time(Phase phase) {
+        return new Timing(phase);
+    }
+
+    public void add(Counter counter, long count) {
+        if (count != 0) {
+            counts.get(counter).add(count);
+        }
+    }
+
+    /** Note one more system solved */
+    public void countSystem() {
+        systems.increment();
+    }
+
+    /** Note how much memory the matrix storage takes now, keeping the largest seen */
+    public void sampleMatrix(Matrix matrix) {
+        peakMatrixBytes.accumulate(matrix.estimateHeapBytes());
+    }
+
+    public long getNanoseconds(Phase phase) {
+        return nanoseconds.get(phase).sum();
+    }
+
+    public long getCount(Counter counter) {
+        return counts.get(counter).sum();
+    }
+
+    public long getPeakMatrixBytes() {
+        return peakMatrixBytes.get();
+    }
+
+    /** @return the totals as one JSON object, times in nanoseconds */
+    public String toJson() {
+        StringJoiner phases = new StringJoiner(", ", "{", "}");
+
+        for (Phase phase : Phase.values()) {
+            phases.add(String.format("\"%s\": %d", camelCase(phase.name()), getNanoseconds(phase)));
+        }
+
+        StringJoiner operations = new StringJoiner(", ", "{", "}");
+
+        for (Counter counter : Counter.values()) {
+            operations.add(String.format("\"%s\": %d", camelCase(counter.name()), getCount(counter)));
+        }
+
+        return String.format("{%n  \"systems\": %d,%n  \"phaseNanoseconds\": %s,%n  \"counts\": %s,%n"
+                + "  \"peakMatrixBytes\": %d%n}%n", systems.sum(), phases, operations, getPeakMatrixBytes());
+    }
+
+    // FORWARD_ELIMINATION -> forwardElimination
+    private static String camelCase(String name) {
+        StringBuilder out = new StringBuilder(name.length());
+        boolean upper = false;
+
+        for (char c : name.toCharArray()) {
+            if (c == '_') {
+                upper = true;
+            } else {
+                out.append(upper ? c : Character.toLowerCase(c));
+                upper = false;
+            }
+        }
+
+        return out.toString();
+    }
+
+    /** One phase being timed */
+    public class Timing {
+        private final Phase phase;
+        private final PhaseEvent event = new PhaseEvent();
+        private final long start = System.nanoTime();
+
+        private Timing(Phase phase) {
+            this.phase = phase;
+            event.phase = phase.name();
+            event.begin();
+        }
+
+        public void stop() {
+            nanoseconds.get(phase).add(System.nanoTime() - start);
+            event.commit();
+        }
+    }
+}
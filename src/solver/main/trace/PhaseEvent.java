@@ -0,0 +1,17 @@
+package solver.main.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** A Flight Recorder event for each phase {@link Metrics} times */
+@Name("solver.Phase")
+@Label("Solver Phase")
+@Category("Linear Equations Solver")
+@Description("Parsing, solving, elimination or writing the output")
+class PhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+}
@@ -0,0 +1,73 @@
+package solver.main.trace;
+
+import solver.main.model.Complex;
+import solver.main.model.Swap;
+
+import java.io.PrintStream;
+
+/**
+ * Prints every row manipulation as it happens, e.g. {@code -2 * R1 + R2 -> R2}.
+ */
+public class PrintTrace implements Trace {
+    private final PrintStream out;
+    private final boolean closeStream;
+
+    /** Print to a stream that stays open, such as {@code System.out} */
+    public PrintTrace(PrintStream out) {
+        this(out, false);
+    }
+
+    /**
+     * @param out where to print
+     * @param closeStream {@code true} if closing the trace should also close the stream
+     */
+    public PrintTrace(PrintStream out, boolean closeStream) {
+        this.out = out;
+        this.closeStream = closeStream;
+    }
+
+    @Override
+    public void addRow(Complex multiplier, int sourceRow, int targetRow) {
+        out.printf("%s * R%d + R%d -> R%d%n", multiplier, sourceRow + 1, targetRow + 1, targetRow + 1);
+    }
+
+    @Override
+    public void multiplyRow(Complex multiplier, int row) {
+        out.printf("%s * R%d -> R%d%n", multiplier, row + 1, row + 1);
+    }
+
+    @Override
+    public void swap(Swap swap) {
+        if (swap.getRowFrom() != swap.getRowTo()) {
+            swapRows(swap.getRowFrom(), swap.getRowTo());
+        }
+
+        if (swap.getColFrom() != swap.getColTo()) {
+            out.printf("C%d <-> C%d%n", swap.getColFrom() + 1, swap.getColTo() + 1);
+        }
+    }
+
+    @Override
+    public void swapRows(int first, int second) {
+        out.printf("R%d <-> R%d%n", first + 1, second + 1);
+    }
+
+    @Override
+    public void iteration(int iteration, double relativeResidual) {
+        out.printf("Iteration %d: relative residual %.3e%n", iteration, relativeResidual);
+    }
+
+    @Override
+    public void message(String text) {
+        out.println(text);
+    }
+
+    @Override
+    public void close() {
+        if (closeStream) {
+            out.close();
+        } else {
+            out.flush();
+        }
+    }
+}
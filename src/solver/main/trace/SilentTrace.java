@@ -0,0 +1,38 @@
+package solver.main.trace;
+
+import solver.main.model.Complex;
+import solver.main.model.Swap;
+
+/**
+ * Ignores everything.
+ */
+public class SilentTrace implements Trace {
+
+    @Override
+    public void addRow(Complex multiplier, int sourceRow, int targetRow) {
+    }
+
+    @Override
+    public void multiplyRow(Complex multiplier, int row) {
+    }
+
+    @Override
+    public void swap(Swap swap) {
+    }
+
+    @Override
+    public void swapRows(int first, int second) {
+    }
+
+    @Override
+    public void iteration(int iteration, double relativeResidual) {
+    }
+
+    @Override
+    public void message(String text) {
+    }
+
+    @Override
+    public void close() {
+    }
+}
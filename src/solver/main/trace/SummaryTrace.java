@@ -0,0 +1,62 @@
+package solver.main.trace;
+
+import solver.main.model.Complex;
+import solver.main.model.Swap;
+
+import java.io.PrintStream;
+
+/**
+ * Counts the row manipulations and prints the totals when closed.  Messages are printed as they come.
+ */
+public class SummaryTrace implements Trace {
+    private final PrintStream out;
+    private long additions = 0;
+    private long multiplications = 0;
+    private long swaps = 0;
+    private int iterations = 0;
+    private double relativeResidual = 0;
+
+    public SummaryTrace(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void addRow(Complex multiplier, int sourceRow, int targetRow) {
+        additions++;
+    }
+
+    @Override
+    public void multiplyRow(Complex multiplier, int row) {
+        multiplications++;
+    }
+
+    @Override
+    public void swap(Swap swap) {
+        swaps++;
+    }
+
+    @Override
+    public void swapRows(int first, int second) {
+        swaps++;
+    }
+
+    @Override
+    public void iteration(int iteration, double relativeResidual) {
+        iterations = iteration;
+        this.relativeResidual = relativeResidual;
+    }
+
+    @Override
+    public void message(String text) {
+        out.println(text);
+    }
+
+    @Override
+    public void close() {
+        out.printf("%d row additions, %d row multiplications, %d swaps%n", additions, multiplications, swaps);
+
+        if (iterations > 0) {
+            out.printf("%d iterations, relative residual %.3e%n", iterations, relativeResidual);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package solver.main.trace;
+
+import solver.main.model.Complex;
+import solver.main.model.Swap;
+
+/**
+ * Receives the row manipulations the solvers make.  Arguments are passed as they are, so an
+ * implementation that ignores them costs nothing: no formatting, no allocation.
+ */
+public interface Trace extends AutoCloseable {
+
+    /** How much the solver reports */
+    enum Level { SILENT, SUMMARY, FULL }
+
+    /** {@code multiplier * R(sourceRow) + R(targetRow) -> R(targetRow)}, rows counted from zero */
+    void addRow(Complex multiplier, int sourceRow, int targetRow);
+
+    /** {@code multiplier * R(row) -> R(row)} */
+    void multiplyRow(Complex multiplier, int row);
+
+    /** A row and/or column swap made to find a non-zero pivot */
+    void swap(Swap swap);
+
+    /** Rows {@code first} and {@code second} were interchanged */
+    void swapRows(int first, int second);
+
+    /** An iterative solver finished an iteration, leaving this residual relative to the constants */
+    void iteration(int iteration, double relativeResidual);
+
+    /** A note about the path the solver took */
+    void message(String text);
+
+    /** Finish the trace, writing anything still held back */
+    @Override
+    void close();
+}